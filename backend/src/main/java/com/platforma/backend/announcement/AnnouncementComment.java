@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "announcement_comments")
+@Table(
+        name = "announcement_comments",
+        indexes = @Index(name = "idx_announcement_comments_post_created", columnList = "post_id, created_at, id")
+)
 public class AnnouncementComment {
 
     @Id
@@ -1,15 +1,27 @@
 package com.platforma.backend.announcement;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface AnnouncementCommentRepository
         extends JpaRepository<AnnouncementComment, Long> {
 
-    long countByPostId(Long postId);
-
-    List<AnnouncementComment>
-    findTop20ByPostIdOrderByCreatedAtDescIdDesc(Long postId);
-
     void deleteByPostId(Long postId);
+
+    // ultimele N comentarii pentru fiecare postare din pagina, intr-un singur query
+    @Query(value = """
+        select c.id, c.post_id, c.author_id, c.content, c.created_at
+        from (
+            select c.*,
+                   row_number() over (partition by c.post_id order by c.created_at desc, c.id desc) as rn
+            from announcement_comments c
+            where c.post_id in (:postIds)
+        ) c
+        where c.rn <= :perPost
+        order by c.post_id, c.created_at desc, c.id desc
+    """, nativeQuery = true)
+    List<AnnouncementComment> findLatestPerPost(Collection<Long> postIds, int perPost);
 }
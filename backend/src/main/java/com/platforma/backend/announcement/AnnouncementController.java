@@ -2,7 +2,6 @@ package com.platforma.backend.announcement;
 
 import com.platforma.backend.announcement.dto.AnnouncementDtos.*;
 import com.platforma.backend.user.User;
-import com.platforma.backend.user.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,38 +12,30 @@ import java.util.List;
 public class AnnouncementController {
 
     private final AnnouncementService service;
-    private final UserRepository userRepository;
 
-    public AnnouncementController(AnnouncementService service, UserRepository userRepository) {
+    public AnnouncementController(AnnouncementService service) {
         this.service = service;
-        this.userRepository = userRepository;
     }
 
+    // principalul pus de JwtAuthenticationFilter e deja User-ul (din PrincipalCache), fara alt query
     private Long myUserId(Authentication auth) {
-        if (auth == null || !auth.isAuthenticated()) return null;
-
-        String email = auth.getName();
-        if (email == null || email.isBlank()) return null;
-
-        return userRepository.findByEmail(email)
-                .map(u -> u.getId())
-                .orElse(null);
+        User me = myUser(auth);
+        return me == null ? null : me.getId();
     }
 
     private User myUser(Authentication auth) {
         if (auth == null || !auth.isAuthenticated()) return null;
-        String email = auth.getName();
-        if (email == null || email.isBlank()) return null;
-        return userRepository.findByEmail(email).orElse(null);
+        return auth.getPrincipal() instanceof User u ? u : null;
     }
 
     @GetMapping("/feed")
     public List<PostDto> feed(
             Authentication auth,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        return service.feed(myUserId(auth), page, size);
+        return service.feed(myUserId(auth), cursor, page, size);
     }
 
     @PostMapping
@@ -55,7 +46,7 @@ public class AnnouncementController {
     }
 
     @PostMapping("/{postId}/like")
-    public PostDto like(Authentication auth, @PathVariable Long postId) {
+    public LikeStateDto like(Authentication auth, @PathVariable Long postId) {
         Long uid = myUserId(auth);
         if (uid == null) throw new RuntimeException("Unauthorized");
         return service.toggleLike(uid, postId);
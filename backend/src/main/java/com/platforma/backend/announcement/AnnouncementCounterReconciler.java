@@ -0,0 +1,49 @@
+package com.platforma.backend.announcement;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Re-derives announcement_posts.like_count / comment_count from the like and comment tables,
+ * to fix any drift left by writes that bypassed AnnouncementService.
+ *
+ * Runs nightly, and at startup only if the counters were never backfilled. Drifted posts are
+ * found with a read-only query, then fixed one at a time: with the post's buffered likes
+ * flushed and no flush in flight for it (AnnouncementLikeBuffer), and with the post row locked
+ * before counting, so concurrent +1/-1 updates are neither lost nor counted twice.
+ */
+@Component
+public class AnnouncementCounterReconciler {
+
+    private final AnnouncementPostRepository postRepo;
+    private final AnnouncementLikeBuffer likeBuffer;
+    private final TransactionTemplate transactionTemplate;
+
+    public AnnouncementCounterReconciler(
+            AnnouncementPostRepository postRepo,
+            AnnouncementLikeBuffer likeBuffer,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.postRepo = postRepo;
+        this.likeBuffer = likeBuffer;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfNeeded() {
+        if (postRepo.hasUnbackfilledCounts()) reconcile();
+    }
+
+    @Scheduled(cron = "${announcements.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        for (Long postId : postRepo.findDriftedIds()) {
+            likeBuffer.withFlushed(postId, () -> transactionTemplate.executeWithoutResult(tx -> {
+                if (postRepo.lockById(postId) == null) return;
+                postRepo.reconcileCounts(postId);
+            }));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.platforma.backend.announcement;
+
+import com.platforma.backend.announcement.dto.AnnouncementDtos.*;
+import com.platforma.backend.user.User;
+import com.platforma.backend.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds PostDtos for a whole page with a fixed number of queries, whatever the page size:
+ * likedByMe for all posts in one IN query, the latest N comments per post in one windowed
+ * query, and the comment authors in one batch. Post authors are expected to be fetched
+ * together with the posts (see AnnouncementPostRepository#findFeedPage).
+ */
+@Component
+public class AnnouncementFeedAssembler {
+
+    private final AnnouncementLikeRepository likeRepo;
+    private final AnnouncementCommentRepository commentRepo;
+    private final UserRepository userRepo;
+    private final AnnouncementLikeBuffer likeBuffer;
+
+    @Value("${announcements.feed.comments-per-post:20}")
+    private int commentsPerPost;
+
+    public AnnouncementFeedAssembler(
+            AnnouncementLikeRepository likeRepo,
+            AnnouncementCommentRepository commentRepo,
+            UserRepository userRepo,
+            AnnouncementLikeBuffer likeBuffer
+    ) {
+        this.likeRepo = likeRepo;
+        this.commentRepo = commentRepo;
+        this.userRepo = userRepo;
+        this.likeBuffer = likeBuffer;
+    }
+
+    public static AuthorDto authorDto(User u) {
+        return new AuthorDto(u.getId(), u.getFirstName(), u.getLastName(), String.valueOf(u.getRole()));
+    }
+
+    public static CommentDto commentDto(AnnouncementComment c) {
+        return new CommentDto(c.getId(), authorDto(c.getAuthor()), c.getContent(), c.getCreatedAt());
+    }
+
+    public List<PostDto> assemble(List<AnnouncementPost> posts, Long myUserId) {
+        if (posts.isEmpty()) return List.of();
+
+        List<Long> postIds = posts.stream().map(AnnouncementPost::getId).toList();
+
+        Set<Long> liked = myUserId == null
+                ? Set.of()
+                : new HashSet<>(likeRepo.findLikedPostIds(myUserId, postIds));
+
+        List<AnnouncementComment> comments = commentRepo.findLatestPerPost(postIds, commentsPerPost);
+
+        // autorii comentariilor dintr-un singur select (getId pe proxy nu face query)
+        Set<Long> authorIds = new HashSet<>();
+        for (AnnouncementComment c : comments) authorIds.add(c.getAuthor().getId());
+        Map<Long, AuthorDto> authors = new HashMap<>();
+        for (User u : userRepo.findAllById(authorIds)) authors.put(u.getId(), authorDto(u));
+
+        Map<Long, List<CommentDto>> byPost = new HashMap<>();
+        for (AnnouncementComment c : comments) {
+            byPost.computeIfAbsent(c.getPost().getId(), k -> new ArrayList<>())
+                    .add(new CommentDto(c.getId(), authors.get(c.getAuthor().getId()), c.getContent(), c.getCreatedAt()));
+        }
+
+        List<PostDto> out = new ArrayList<>(posts.size());
+        for (AnnouncementPost p : posts) {
+            // toggle-urile inca neflush-uite au prioritate fata de DB
+            AnnouncementLikeBuffer.LikeState buffered = likeBuffer.peek(p.getId(), myUserId);
+            long likeCount = buffered != null ? buffered.likeCount() : p.getLikeCount();
+            boolean likedByMe = buffered != null ? buffered.liked() : liked.contains(p.getId());
+
+            out.add(new PostDto(
+                    p.getId(),
+                    authorDto(p.getAuthor()),
+                    p.getContent(),
+                    p.getImageUrl(),
+                    p.getCreatedAt(),
+                    p.getUpdatedAt(),
+                    likeCount,
+                    p.getCommentCount(),
+                    likedByMe,
+                    byPost.getOrDefault(p.getId(), List.of())
+            ));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,281 @@
+package com.platforma.backend.announcement;
+
+import com.platforma.backend.announcement.dto.AnnouncementDtos.LikeUpdatedEvent;
+import com.platforma.backend.ws.RealtimeOutbox;
+import com.platforma.backend.ws.WsEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind state for like toggles.
+ *
+ * Each touched post keeps its set of likers in memory, guarded by one of a fixed set of
+ * lock stripes (so unrelated posts never contend). A toggle only flips that set and records
+ * the user's final state; a short fixed-delay job writes the changes of each post in one
+ * transaction (insert ... on conflict do nothing / delete, so replays are harmless), moves
+ * the counter by the rows actually changed and sends one like event per post.
+ *
+ * The flush runs on its own thread, so slow @Scheduled jobs can't hold likes back, and once
+ * more on shutdown. Every write locks the post row first: a post deleted meanwhile is skipped
+ * and its state dropped, and the counter reconciler never counts while a batch is half written.
+ *
+ * State lives in this process: with several nodes behind a load balancer, likes for a post
+ * must be routed to one node (or this buffer replaced) to keep the in-memory view exact.
+ */
+@Slf4j
+@Component
+public class AnnouncementLikeBuffer {
+
+    public record LikeState(long likeCount, boolean liked) {}
+
+    private static final int STRIPES = 64;
+
+    private final AnnouncementPostRepository postRepo;
+    private final AnnouncementLikeRepository likeRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final RealtimeOutbox outbox;
+
+    @Value("${announcements.likes.idle-evict-ms:60000}")
+    private long idleEvictMs;
+
+    @Value("${announcements.likes.flush-ms:250}")
+    private long flushMs;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "likes-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<Long, PostLikes> posts = new ConcurrentHashMap<>();
+
+    private static final class PostLikes {
+        final Set<Long> likers;
+        // userId -> starea finala (true = like) inca nescrisa in DB
+        Map<Long, Boolean> dirty = new HashMap<>();
+        boolean flushing;
+        long touchedAt = System.currentTimeMillis();
+
+        PostLikes(Collection<Long> likers) {
+            this.likers = new HashSet<>(likers);
+        }
+    }
+
+    public AnnouncementLikeBuffer(
+            AnnouncementPostRepository postRepo,
+            AnnouncementLikeRepository likeRepo,
+            TransactionTemplate transactionTemplate,
+            RealtimeOutbox outbox
+    ) {
+        this.postRepo = postRepo;
+        this.likeRepo = likeRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+    }
+
+    private Object lockFor(Long postId) {
+        return stripes[Long.hashCode(postId) & (STRIPES - 1)];
+    }
+
+    /**
+     * Flips the like of {@code userId} on {@code postId}; returns the new state as seen by everyone
+     * once the next flush runs.
+     */
+    public LikeState toggle(Long postId, Long userId) {
+        while (true) {
+            PostLikes st = load(postId);
+            synchronized (lockFor(postId)) {
+                // evacuat / uitat intre load si lock -> reluam
+                if (posts.get(postId) != st) continue;
+
+                boolean liked = !st.likers.remove(userId);
+                if (liked) st.likers.add(userId);
+
+                st.dirty.put(userId, liked);
+                st.touchedAt = System.currentTimeMillis();
+                return new LikeState(st.likers.size(), liked);
+            }
+        }
+    }
+
+    /**
+     * In-memory state for posts that have one (read-your-writes for the feed before a flush).
+     */
+    public LikeState peek(Long postId, Long userId) {
+        synchronized (lockFor(postId)) {
+            PostLikes st = posts.get(postId);
+            if (st == null) return null;
+            return new LikeState(st.likers.size(), userId != null && st.likers.contains(userId));
+        }
+    }
+
+    /**
+     * Drops pending state for a deleted post (call after the delete commits).
+     */
+    public void forget(Long postId) {
+        synchronized (lockFor(postId)) {
+            posts.remove(postId);
+        }
+    }
+
+    /**
+     * Runs {@code action} once this post's pending likes are written, with no flush in flight
+     * for it (used by the counter reconciler). The stripe lock is only held to take the
+     * snapshot: the writes and the action run outside it, so toggles on the stripe keep going
+     * and are written by a later flush. If nothing was toggled meanwhile, the in-memory likers
+     * are dropped so the next toggle reloads them from the rows.
+     */
+    public void withFlushed(Long postId, Runnable action) {
+        Map<Long, Boolean> batch = Map.of();
+        long likeCount = 0;
+        boolean claimed = false;
+
+        while (true) {
+            synchronized (lockFor(postId)) {
+                PostLikes st = posts.get(postId);
+                if (st == null) break;
+                if (!st.flushing) {
+                    batch = st.dirty;
+                    st.dirty = new HashMap<>();
+                    st.flushing = true;
+                    likeCount = st.likers.size();
+                    claimed = true;
+                    break;
+                }
+            }
+            // un flush e in curs pe thread-ul likes-flush; il lasam sa termine
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        boolean ok = false;
+        try {
+            if (!batch.isEmpty()) writeBatch(postId, batch, likeCount);
+            action.run();
+            ok = true;
+        } finally {
+            if (claimed) {
+                synchronized (lockFor(postId)) {
+                    PostLikes st = posts.get(postId);
+                    if (st != null) {
+                        st.flushing = false;
+                        if (!ok) batch.forEach(st.dirty::putIfAbsent);
+                        else if (st.dirty.isEmpty()) posts.remove(postId);
+                    }
+                }
+            }
+        }
+    }
+
+    // citirile din DB se fac fara lock: un post rece nu blocheaza celelalte postari din acelasi stripe
+    private PostLikes load(Long postId) {
+        PostLikes st = posts.get(postId);
+        if (st != null) return st;
+
+        if (!postRepo.existsById(postId)) throw new NoSuchElementException("Post not found");
+        PostLikes fresh = new PostLikes(likeRepo.findUserIdsByPostId(postId));
+        st = posts.putIfAbsent(postId, fresh);
+        return st == null ? fresh : st;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException ignored) {
+                // o eroare neprinsa ar opri executia periodica
+            }
+        }, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ultimul flush, ca toggle-urile din ultima fereastra sa nu se piarda la oprire
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+
+        for (Long postId : new ArrayList<>(posts.keySet())) {
+            Map<Long, Boolean> batch;
+            long likeCount;
+
+            synchronized (lockFor(postId)) {
+                PostLikes st = posts.get(postId);
+                if (st == null || st.flushing) continue;
+
+                if (st.dirty.isEmpty()) {
+                    if (now - st.touchedAt > idleEvictMs) posts.remove(postId);
+                    continue;
+                }
+
+                batch = st.dirty;
+                st.dirty = new HashMap<>();
+                st.flushing = true;
+                likeCount = st.likers.size();
+            }
+
+            boolean ok = false;
+            boolean gone = false;
+            try {
+                gone = !writeBatch(postId, batch, likeCount);
+                ok = true;
+            } catch (RuntimeException e) {
+                log.warn("Could not flush likes of post {}", postId, e);
+            } finally {
+                synchronized (lockFor(postId)) {
+                    PostLikes st = posts.get(postId);
+                    if (gone) {
+                        // postarea a fost stearsa intre timp -> nu mai are rost sa reincercam
+                        posts.remove(postId);
+                    } else if (st != null) {
+                        st.flushing = false;
+                        // toggle-urile noi au prioritate fata de batch-ul esuat
+                        if (!ok) batch.forEach(st.dirty::putIfAbsent);
+                    }
+                }
+            }
+        }
+    }
+
+    // false daca postarea nu mai exista (nimic scris)
+    private boolean writeBatch(Long postId, Map<Long, Boolean> batch, long likeCount) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            // acelasi lock ca deletePost si reconcilierea: nu scriem like-uri pentru o postare stearsa
+            if (postRepo.lockById(postId) == null) return false;
+
+            long delta = 0;
+            for (Map.Entry<Long, Boolean> e : batch.entrySet()) {
+                delta += e.getValue()
+                        ? likeRepo.insertLike(postId, e.getKey())
+                        : -likeRepo.removeLike(postId, e.getKey());
+            }
+            if (delta != 0) postRepo.addLikes(postId, delta);
+
+            // un singur eveniment pe postare pentru toata fereastra (trimis dupa commit)
+            outbox.publish("/topic/announcements", new WsEvent("announcement:like:updated",
+                    new LikeUpdatedEvent(postId, likeCount)));
+            return true;
+        }));
+    }
+}
@@ -1,14 +1,33 @@
 package com.platforma.backend.announcement;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
 
 public interface AnnouncementLikeRepository
         extends JpaRepository<AnnouncementLike, Long> {
 
-    long countByPostId(Long postId);
-    boolean existsByPostIdAndUserId(Long postId, Long userId);
-    Optional<AnnouncementLike> findByPostIdAndUserId(Long postId, Long userId);
-
     void deleteByPostId(Long postId);
+
+    @Query("select l.user.id from AnnouncementLike l where l.post.id = :postId")
+    List<Long> findUserIdsByPostId(Long postId);
+
+    // idempotent: un al doilea insert pentru aceeasi pereche nu face nimic (intoarce 0)
+    @Modifying
+    @Query(value = """
+        insert into announcement_likes (post_id, user_id, created_at)
+        values (:postId, :userId, now())
+        on conflict (post_id, user_id) do nothing
+    """, nativeQuery = true)
+    int insertLike(Long postId, Long userId);
+
+    @Query("select l.post.id from AnnouncementLike l where l.user.id = :userId and l.post.id in :postIds")
+    List<Long> findLikedPostIds(Long userId, Collection<Long> postIds);
+
+    // numarul de randuri sterse spune daca like-ul chiar exista (0 = toggle concurent)
+    @Modifying(flushAutomatically = true)
+    @Query("delete from AnnouncementLike l where l.post.id = :postId and l.user.id = :userId")
+    int removeLike(Long postId, Long userId);
 }
@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "announcement_posts")
+@Table(
+        name = "announcement_posts",
+        indexes = @Index(name = "idx_announcement_posts_created_id", columnList = "created_at, id")
+)
 public class AnnouncementPost {
 
     @Id
@@ -32,6 +35,14 @@ public class AnnouncementPost {
 
     @Column(length = 1000)
     private String imageUrl;
+
+    // contoare denormalizate: modificate doar prin update-uri atomice din AnnouncementPostRepository
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long likeCount = 0;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long commentCount = 0;
+
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public Long getId() { return id; }
@@ -41,4 +52,6 @@ public class AnnouncementPost {
     public void setContent(String content) { this.content = content; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
+    public long getLikeCount() { return likeCount; }
+    public long getCommentCount() { return commentCount; }
 }
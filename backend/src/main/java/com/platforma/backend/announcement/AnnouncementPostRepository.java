@@ -1,12 +1,71 @@
 package com.platforma.backend.announcement;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
 
 public interface AnnouncementPostRepository
         extends JpaRepository<AnnouncementPost, Long> {
 
-    Page<AnnouncementPost>
-    findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+    // pagina de feed cu autorii incarcati in acelasi select (fara count query)
+    @Query("select p from AnnouncementPost p join fetch p.author order by p.createdAt desc, p.id desc")
+    List<AnnouncementPost> findFeedPage(Pageable pageable);
+
+    // keyset: postarile dinaintea cursorului (createdAt, id); range scan pe idx_announcement_posts_created_id
+    @Query("""
+        select p from AnnouncementPost p join fetch p.author
+        where (p.createdAt, p.id) < (:createdAt, :id)
+        order by p.createdAt desc, p.id desc
+    """)
+    List<AnnouncementPost> findFeedBefore(Instant createdAt, Long id, Pageable pageable);
+
+    // update atomic in DB (fara read-modify-write), nu atinge updatedAt
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AnnouncementPost p set p.likeCount = p.likeCount + :delta where p.id = :postId")
+    int addLikes(Long postId, long delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AnnouncementPost p set p.commentCount = p.commentCount + :delta where p.id = :postId")
+    int addComments(Long postId, long delta);
+
+    // postarile ale caror contoare au deviat de la COUNT(*) (doar citire, fara lock-uri)
+    @Query(value = """
+        select p.id
+        from announcement_posts p
+        where p.like_count <> (select count(*) from announcement_likes l where l.post_id = p.id)
+           or p.comment_count <> (select count(*) from announcement_comments c where c.post_id = p.id)
+    """, nativeQuery = true)
+    List<Long> findDriftedIds();
+
+    // contoarele n-au fost completate niciodata (randuri de dinainte de coloane)
+    @Query(value = """
+        select exists (
+            select 1 from announcement_posts p
+            where p.like_count = 0 and p.comment_count = 0
+              and (exists (select 1 from announcement_likes l where l.post_id = p.id)
+                or exists (select 1 from announcement_comments c where c.post_id = p.id))
+        )
+    """, nativeQuery = true)
+    boolean hasUnbackfilledCounts();
+
+    // blocheaza randul: +1/-1 concurente asteapta, iar COUNT-urile urmatoare vad tot ce s-a comis inainte
+    @Query(value = "select p.id from announcement_posts p where p.id = :postId for update", nativeQuery = true)
+    Long lockById(Long postId);
+
+    @Modifying
+    @Query(value = """
+        update announcement_posts p
+        set like_count = x.likes, comment_count = x.comments
+        from (
+            select (select count(*) from announcement_likes l where l.post_id = :postId) as likes,
+                   (select count(*) from announcement_comments c where c.post_id = :postId) as comments
+        ) x
+        where p.id = :postId
+          and (p.like_count <> x.likes or p.comment_count <> x.comments)
+    """, nativeQuery = true)
+    int reconcileCounts(Long postId);
 }
@@ -1,18 +1,18 @@
 package com.platforma.backend.announcement;
 
 import com.platforma.backend.announcement.dto.AnnouncementDtos.*;
+import com.platforma.backend.common.AfterCommit;
 import com.platforma.backend.user.User;
 import com.platforma.backend.user.Role;
 import com.platforma.backend.user.UserRepository;
+import com.platforma.backend.ws.RealtimeOutbox;
 import com.platforma.backend.ws.WsEvent;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class AnnouncementService {
@@ -21,66 +21,54 @@ public class AnnouncementService {
     private final AnnouncementLikeRepository likeRepo;
     private final AnnouncementCommentRepository commentRepo;
     private final UserRepository userRepo;
-    private final SimpMessagingTemplate messaging;
+    private final RealtimeOutbox outbox;
+    private final AnnouncementFeedAssembler feedAssembler;
+    private final AnnouncementLikeBuffer likeBuffer;
 
     public AnnouncementService(
             AnnouncementPostRepository postRepo,
             AnnouncementLikeRepository likeRepo,
             AnnouncementCommentRepository commentRepo,
             UserRepository userRepo,
-            SimpMessagingTemplate messaging
+            RealtimeOutbox outbox,
+            AnnouncementFeedAssembler feedAssembler,
+            AnnouncementLikeBuffer likeBuffer
     ) {
         this.postRepo = postRepo;
         this.likeRepo = likeRepo;
         this.commentRepo = commentRepo;
         this.userRepo = userRepo;
-        this.messaging = messaging;
+        this.outbox = outbox;
+        this.feedAssembler = feedAssembler;
+        this.likeBuffer = likeBuffer;
     }
 
-    private AuthorDto authorDto(User u) {
-        return new AuthorDto(u.getId(), u.getFirstName(), u.getLastName(), String.valueOf(u.getRole()));
-    }
-
-    private CommentDto commentDto(AnnouncementComment c) {
-        return new CommentDto(c.getId(), authorDto(c.getAuthor()), c.getContent(), c.getCreatedAt());
-    }
-
-    private PostDto postDto(AnnouncementPost p, Long myUserId) {
-        long likeCount = likeRepo.countByPostId(p.getId());
-        long commentCount = commentRepo.countByPostId(p.getId());
-        boolean likedByMe = myUserId != null && likeRepo.existsByPostIdAndUserId(p.getId(), myUserId);
-
-        List<CommentDto> latestComments = commentRepo
-                .findTop20ByPostIdOrderByCreatedAtDescIdDesc(p.getId())
-                .stream()
-                .map(this::commentDto)
-                .toList();
-
-        return new PostDto(
-                p.getId(),
-                authorDto(p.getAuthor()),
-                p.getContent(),
-                p.getImageUrl(),
-                p.getCreatedAt(),
-                p.getUpdatedAt(),
-                likeCount,
-                commentCount,
-                likedByMe,
-                latestComments
-        );
-    }
-
-    public List<PostDto> feed(Long myUserId, int page, int size) {
-        var pageable = PageRequest.of(
-                Math.max(page, 0),
-                Math.min(Math.max(size, 1), 50),
-                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"))
-        );
+    /**
+     * Feed page, newest first. With {@code cursor} ("createdAt,id" of the last post the client has)
+     * it is keyset-paged, so posts arriving meanwhile don't shift the next page; without it,
+     * the legacy offset {@code page} is used.
+     */
+    @Transactional
+    public List<PostDto> feed(Long myUserId, String cursor, int page, int size) {
+        int safeSize = Math.min(Math.max(size, 1), 50);
+
+        List<AnnouncementPost> posts;
+        if (cursor != null && !cursor.isBlank()) {
+            int comma = cursor.lastIndexOf(',');
+            Instant createdAt;
+            Long id;
+            try {
+                createdAt = Instant.parse(cursor.substring(0, comma).trim());
+                id = Long.parseLong(cursor.substring(comma + 1).trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            posts = postRepo.findFeedBefore(createdAt, id, PageRequest.of(0, safeSize));
+        } else {
+            posts = postRepo.findFeedPage(PageRequest.of(Math.max(page, 0), safeSize));
+        }
 
-        return postRepo.findAllByOrderByCreatedAtDescIdDesc(pageable)
-                .stream()
-                .map(p -> postDto(p, myUserId))
-                .toList();
+        return feedAssembler.assemble(posts, myUserId);
     }
 
     @Transactional
@@ -101,29 +89,27 @@ public class AnnouncementService {
 
         postRepo.save(p);
 
-        PostDto dto = postDto(p, myUserId);
-        messaging.convertAndSend("/topic/announcements", new WsEvent("announcement:created", dto));
+        // postare noua: fara like-uri / comentarii, nu are rost sa le numaram
+        PostDto dto = new PostDto(
+                p.getId(),
+                AnnouncementFeedAssembler.authorDto(me),
+                p.getContent(),
+                p.getImageUrl(),
+                p.getCreatedAt(),
+                p.getUpdatedAt(),
+                0,
+                0,
+                false,
+                List.of()
+        );
+        outbox.publish("/topic/announcements", new WsEvent("announcement:created", dto));
         return dto;
     }
 
-    @Transactional
-    public PostDto toggleLike(Long myUserId, Long postId) {
-        userRepo.findById(myUserId).orElseThrow();
-        AnnouncementPost post = postRepo.findById(postId).orElseThrow();
-
-        likeRepo.findByPostIdAndUserId(postId, myUserId).ifPresentOrElse(
-                likeRepo::delete,
-                () -> {
-                    var l = new AnnouncementLike();
-                    l.setPost(post);
-                    l.setUser(userRepo.findById(myUserId).orElseThrow());
-                    likeRepo.save(l);
-                }
-        );
-
-        PostDto dto = postDto(post, myUserId);
-        messaging.convertAndSend("/topic/announcements", new WsEvent("announcement:like:updated", dto));
-        return dto;
+    // fara tranzactie / query-uri pe calea calda: vezi AnnouncementLikeBuffer
+    public LikeStateDto toggleLike(Long myUserId, Long postId) {
+        AnnouncementLikeBuffer.LikeState st = likeBuffer.toggle(postId, myUserId);
+        return new LikeStateDto(postId, st.likeCount(), st.liked());
     }
 
     @Transactional
@@ -141,9 +127,10 @@ public class AnnouncementService {
 
         commentRepo.save(c);
 
-        CommentDto dto = commentDto(c);
-        messaging.convertAndSend("/topic/announcements",
-                new WsEvent("announcement:comment:created", Map.of("postId", postId, "comment", dto)));
+        CommentDto dto = AnnouncementFeedAssembler.commentDto(c);
+        postRepo.addComments(postId, 1);
+        outbox.publish("/topic/announcements",
+                new WsEvent("announcement:comment:created", new CommentCreatedEvent(postId, dto)));
         return dto;
     }
 
@@ -160,12 +147,15 @@ public class AnnouncementService {
             throw new RuntimeException("Not allowed");
         }
 
+        // asteapta un flush de like-uri in curs; flush-urile urmatoare vad postarea stearsa si o sar
+        postRepo.lockById(postId);
         likeRepo.deleteByPostId(postId);
         commentRepo.deleteByPostId(postId);
         postRepo.delete(post);
+        AfterCommit.run(() -> likeBuffer.forget(postId));
 
-        messaging.convertAndSend("/topic/announcements",
-                new WsEvent("announcement:deleted", Map.of("postId", postId)));
+        outbox.publish("/topic/announcements",
+                new WsEvent("announcement:deleted", new PostDeletedEvent(postId)));
     }
 
     // ADMIN sterge comment dupa id
@@ -182,8 +172,9 @@ public class AnnouncementService {
         commentRepo.delete(c);
 
         if (postId != null) {
-            messaging.convertAndSend("/topic/announcements",
-                    new WsEvent("announcement:comment:deleted", Map.of("postId", postId, "commentId", commentId)));
+            postRepo.addComments(postId, -1);
+            outbox.publish("/topic/announcements",
+                    new WsEvent("announcement:comment:deleted", new CommentDeletedEvent(postId, commentId)));
         }
     }
 }
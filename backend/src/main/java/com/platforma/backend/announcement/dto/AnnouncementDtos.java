@@ -29,4 +29,13 @@ public class AnnouncementDtos {
             boolean likedByMe,
             List<CommentDto> latestComments
     ) {}
+
+    // evenimente pe /topic/announcements: doar ce s-a schimbat, clientul aplica local
+    public record LikeUpdatedEvent(Long postId, long likeCount) {}
+
+    // raspunsul la toggle: doar starea like-ului pentru cel care a apasat
+    public record LikeStateDto(Long postId, long likeCount, boolean likedByMe) {}
+    public record CommentCreatedEvent(Long postId, CommentDto comment) {}
+    public record CommentDeletedEvent(Long postId, Long commentId) {}
+    public record PostDeletedEvent(Long postId) {}
 }
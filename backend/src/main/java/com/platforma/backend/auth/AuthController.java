@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,14 +28,15 @@ public class AuthController {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     private final ProfileService profileService;
+    // async: hash-ul BCrypt ruleaza pe PasswordHasher, thread-ul Tomcat e eliberat imediat
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest req) {
-        return ResponseEntity.ok(authService.register(req));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest req) {
+        return authService.register(req).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest req) {
-        return ResponseEntity.ok(authService.login(req));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest req) {
+        return authService.login(req).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/google")
@@ -3,59 +3,109 @@ package com.platforma.backend.auth;
 import com.platforma.backend.profile.ProfileService;
 import com.platforma.backend.user.User;
 import com.platforma.backend.user.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Register / login. Only the BCrypt work runs on {@link PasswordHasher}'s pool; the cheap
+ * lookups before it stay on the request thread, and everything after it (DB writes, token)
+ * continues on the MVC async executor.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthenticationService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
     private final ProfileService profileService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor asyncExecutor;
+
+    public AuthenticationService(
+            UserRepository userRepository,
+            PasswordHasher passwordHasher,
+            JwtService jwtService,
+            ProfileService profileService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("mvcAsyncExecutor") Executor asyncExecutor
+    ) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtService = jwtService;
+        this.profileService = profileService;
+        this.transactionTemplate = transactionTemplate;
+        this.asyncExecutor = asyncExecutor;
+    }
 
-    public AuthResponse register(RegisterRequest request) {
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
 
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("Email already in use");
         }
 
-        User user = User.builder()
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .build();
+        // user + profil in aceeasi tranzactie: un profil esuat nu lasa un user fara profil
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(hash -> transactionTemplate.execute(tx -> {
+            User user = User.builder()
+                    .firstName(request.getFirstName())
+                    .lastName(request.getLastName())
+                    .email(request.getEmail())
+                    .password(hash)
+                    .role(request.getRole())
+                    .build();
 
-        userRepository.save(user);
-        profileService.createProfileForUser(user);
+            userRepository.save(user);
+            profileService.createProfileForUser(user);
 
 
-        String token = jwtService.generateToken(user);
+            String token = jwtService.generateToken(user);
 
-        return new AuthResponse(
-                token,
-                new UserDto(user)
-        );
+            return new AuthResponse(
+                    token,
+                    new UserDto(user)
+            );
+        }), asyncExecutor);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid password");
-        }
+        String stored = user.getPassword();
+
+        return passwordHasher.matches(request.getPassword(), stored).thenApplyAsync(ok -> {
+            if (!ok) {
+                throw new RuntimeException("Invalid password");
+            }
+
+            if (passwordHasher.needsUpgrade(stored)) {
+                upgradeHash(user.getId(), stored, request.getPassword());
+            }
+
+            String token = jwtService.generateToken(user);
+
+            return new AuthResponse(
+                    token,
+                    new UserDto(user)
+            );
+        }, asyncExecutor);
+    }
 
-        String token = jwtService.generateToken(user);
+    // re-hash cu costul tinta, in fundal; daca pool-ul e ocupat incercam la urmatorul login
+    private void upgradeHash(Long userId, String oldHash, String raw) {
+        CompletableFuture<String> rehash = passwordHasher.tryEncode(raw);
+        if (rehash == null) return;
 
-        return new AuthResponse(
-                token,
-                new UserDto(user)
-        );
+        rehash.thenAcceptAsync(newHash -> userRepository.replacePassword(userId, oldHash, newHash), asyncExecutor)
+                .exceptionally(e -> {
+                    log.warn("Could not upgrade password hash for user {}", userId, e);
+                    return null;
+                });
     }
 }
@@ -1,7 +1,5 @@
 package com.platforma.backend.auth;
 
-import com.platforma.backend.user.User;
-import com.platforma.backend.user.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +18,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest req,
@@ -44,13 +42,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = header.substring(7);
-        String email = jwtService.extractUsername(token);
+        JwtService.VerifiedToken jwt = jwtService.verify(token);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails user = userRepository.findByEmail(email).orElse(null);
+            UserDetails user = principalCache.get(jwt.subject());
 
-            if (user != null && jwtService.isValid(token, (User) user)) {
+            if (user != null) {
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
                                 user,
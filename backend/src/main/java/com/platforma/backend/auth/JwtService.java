@@ -2,15 +2,18 @@ package com.platforma.backend.auth;
 
 import com.platforma.backend.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
@@ -21,8 +24,30 @@ public class JwtService {
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
 
-    private Key getKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // construite o singura data; JwtParser e imutabil si thread-safe
+    private Key key;
+    private JwtParser parser;
+
+    private final VerifiedTokenCache tokenCache;
+
+    public JwtService(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * Claims of a token whose signature and expiry were checked.
+     */
+    public record VerifiedToken(String subject, String role, Instant issuedAt, Instant expiresAt) {
+
+        public boolean isExpired() {
+            return expiresAt != null && !expiresAt.isAfter(Instant.now());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(User user) {
@@ -31,30 +56,44 @@ public class JwtService {
                 .claim("role", user.getRole().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Parses and verifies the token once (signature + exp); tokens seen before are served from
+     * {@link VerifiedTokenCache} without crypto. Returns null for anything that is not a valid,
+     * unexpired token.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) return null;
 
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String cacheKey = VerifiedTokenCache.keyOf(token);
+        VerifiedToken cached = tokenCache.get(cacheKey);
+        if (cached != null) return cached;
 
-        return resolver.apply(claims);
+        VerifiedToken verified = parse(token);
+        if (verified != null) tokenCache.put(cacheKey, verified);
+        return verified;
     }
 
-    public boolean isValid(String token, User user) {
-        return user.getEmail().equals(extractUsername(token)) && !isExpired(token);
-    }
+    private VerifiedToken parse(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        String subject = claims.getSubject();
+        if (subject == null || subject.isBlank()) return null;
 
-    private boolean isExpired(String token) {
-        Date exp = extractClaim(token, Claims::getExpiration);
-        return exp.before(new Date());
+        VerifiedToken verified = new VerifiedToken(
+                subject,
+                claims.get("role", String.class),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant()
+        );
+        return verified.isExpired() ? null : verified;
     }
 }
@@ -0,0 +1,110 @@
+package com.platforma.backend.auth;
+
+import com.platforma.backend.common.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt off the servlet threads, on a fixed pool (one thread per core by default)
+ * with a short bounded queue. When the queue is full the call fails immediately with 503
+ * instead of piling up behind a login storm.
+ */
+@Component
+public class PasswordHasher implements MetricsSource {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity
+    ) {
+        this.passwordEncoder = passwordEncoder;
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                size,
+                size,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public CompletableFuture<String> encode(String raw) {
+        return submit(() -> passwordEncoder.encode(raw));
+    }
+
+    public CompletableFuture<Boolean> matches(String raw, String encoded) {
+        return submit(() -> passwordEncoder.matches(raw, encoded));
+    }
+
+    /**
+     * True if {@code encoded} was made with a lower cost than the configured encoder.
+     */
+    public boolean needsUpgrade(String encoded) {
+        return encoded != null && !encoded.isEmpty() && passwordEncoder.upgradeEncoding(encoded);
+    }
+
+    /**
+     * Best effort: hashes on the pool only if there is room right now, otherwise returns null.
+     */
+    public CompletableFuture<String> tryEncode(String raw) {
+        if (executor.getQueue().remainingCapacity() == 0) return null;
+        try {
+            return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(raw), executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please retry");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String metricsName() {
+        return "auth.password-hashing";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("poolSize", executor.getPoolSize());
+        m.put("active", executor.getActiveCount());
+        m.put("queueDepth", executor.getQueue().size());
+        m.put("completed", executor.getCompletedTaskCount());
+        m.put("rejected", rejected.sum());
+        return m;
+    }
+}
@@ -0,0 +1,96 @@
+package com.platforma.backend.auth;
+
+import com.platforma.backend.user.Role;
+import com.platforma.backend.user.User;
+import com.platforma.backend.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users resolved from a token subject (email), kept for a short TTL so that authenticating
+ * a request usually needs no query. Bounded: when full, expired entries go first, then the
+ * oldest ones. Call {@link #evict} whenever a user field exposed through the principal changes.
+ *
+ * Entries are immutable snapshots and every call returns a fresh, detached User, so a caller
+ * that mutates its principal can't change what other requests see.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Cached(Long id, String firstName, String lastName, String email, String password,
+                          Role role, long loadedAt) {
+
+        static Cached of(User u, long loadedAt) {
+            return new Cached(u.getId(), u.getFirstName(), u.getLastName(), u.getEmail(), u.getPassword(),
+                    u.getRole(), loadedAt);
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .password(password)
+                    .role(role)
+                    .build();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final int maxSize;
+
+    private final Map<String, Cached> byEmail = new ConcurrentHashMap<>();
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            @Value("${auth.principal-cache.ttl-ms:60000}") long ttlMs,
+            @Value("${auth.principal-cache.max-size:10000}") int maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The user for {@code email}, or null if there is none (misses are not cached).
+     */
+    public User get(String email) {
+        if (email == null || email.isBlank()) return null;
+
+        long now = System.currentTimeMillis();
+        Cached c = byEmail.get(email);
+        if (c != null && now - c.loadedAt() < ttlMs) return c.toUser();
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            byEmail.remove(email);
+            return null;
+        }
+
+        if (byEmail.size() >= maxSize) shrink(now);
+        Cached fresh = Cached.of(user, now);
+        byEmail.put(email, fresh);
+        return fresh.toUser();
+    }
+
+    public void evict(String email) {
+        if (email != null) byEmail.remove(email);
+    }
+
+    private synchronized void shrink(long now) {
+        if (byEmail.size() < maxSize) return;
+
+        byEmail.values().removeIf(c -> now - c.loadedAt() >= ttlMs);
+        if (byEmail.size() < maxSize) return;
+
+        // inca plin: scoatem jumatatea cea mai veche
+        long[] ages = byEmail.values().stream().mapToLong(Cached::loadedAt).sorted().toArray();
+        long cutoff = ages[ages.length / 2];
+        byEmail.values().removeIf(c -> c.loadedAt() <= cutoff);
+    }
+}
@@ -0,0 +1,110 @@
+package com.platforma.backend.auth;
+
+import com.platforma.backend.common.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SHA-256(token) -> claims already verified by {@link JwtService}. Reads are plain
+ * ConcurrentHashMap lookups; an entry lives until the token's exp or for the cache TTL,
+ * whichever comes first. Bounded like {@link PrincipalCache}: when full, expired entries
+ * go first, then the oldest half.
+ */
+@Component
+public class VerifiedTokenCache implements MetricsSource {
+
+    // expiresAt = min(exp, cachedAt + ttl), in ms
+    private record Cached(JwtService.VerifiedToken token, long cachedAt, long expiresAt) {}
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Cached> byHash = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public VerifiedTokenCache(
+            @Value("${auth.token-cache.ttl-ms:600000}") long ttlMs,
+            @Value("${auth.token-cache.max-size:20000}") int maxSize
+    ) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public JwtService.VerifiedToken get(String key) {
+        Cached c = byHash.get(key);
+        if (c == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= c.expiresAt()) {
+            byHash.remove(key, c);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return c.token();
+    }
+
+    public void put(String key, JwtService.VerifiedToken token) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMs;
+        if (token.expiresAt() != null) expiresAt = Math.min(expiresAt, token.expiresAt().toEpochMilli());
+        if (expiresAt <= now) return;
+
+        if (byHash.size() >= maxSize) shrink(now);
+        byHash.put(key, new Cached(token, now, expiresAt));
+    }
+
+    public static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized void shrink(long now) {
+        if (byHash.size() < maxSize) return;
+
+        int before = byHash.size();
+        byHash.values().removeIf(c -> now >= c.expiresAt());
+
+        if (byHash.size() >= maxSize) {
+            // inca plin: scoatem jumatatea cea mai veche
+            long[] ages = byHash.values().stream().mapToLong(Cached::cachedAt).sorted().toArray();
+            long cutoff = ages[ages.length / 2];
+            byHash.values().removeIf(c -> c.cachedAt() <= cutoff);
+        }
+        evicted.add(Math.max(0, before - byHash.size()));
+    }
+
+    @Override
+    public String metricsName() {
+        return "auth.token-cache";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", byHash.size());
+        out.put("hits", h);
+        out.put("misses", m);
+        out.put("hitRatio", h + m == 0 ? 0.0 : h / (double) (h + m));
+        out.put("evicted", evicted.sum());
+        return out;
+    }
+}
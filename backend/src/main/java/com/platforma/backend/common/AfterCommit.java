@@ -0,0 +1,43 @@
+package com.platforma.backend.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (caches, indexes, broadcasts) until the surrounding
+ * transaction commits, so a rollback never leaves them describing rows that don't exist.
+ * Without an active transaction the action runs immediately.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        register(action, null);
+    }
+
+    /**
+     * {@code onCommit} runs only after a successful commit; {@code onCompletion} (optional)
+     * runs after commit or rollback, for cleanup.
+     */
+    public static void register(Runnable onCommit, Runnable onCompletion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            if (onCompletion != null) onCompletion.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (onCompletion != null) onCompletion.run();
+            }
+        });
+    }
+}
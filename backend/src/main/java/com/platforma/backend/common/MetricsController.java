@@ -0,0 +1,31 @@
+package com.platforma.backend.common;
+
+import com.platforma.backend.user.Role;
+import com.platforma.backend.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final List<MetricsSource> sources;
+
+    // Admin-only
+    @GetMapping
+    public Map<String, Map<String, Object>> all(@AuthenticationPrincipal User user) {
+        if (user == null || user.getRole() != Role.ADMIN) throw new RuntimeException("Not allowed");
+
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        for (MetricsSource s : sources) out.put(s.metricsName(), s.metrics());
+        return out;
+    }
+}
@@ -0,0 +1,13 @@
+package com.platforma.backend.common;
+
+import java.util.Map;
+
+/**
+ * In-process counters exposed on GET /api/admin/metrics (no actuator in this app).
+ */
+public interface MetricsSource {
+
+    String metricsName();
+
+    Map<String, Object> metrics();
+}
@@ -0,0 +1,45 @@
+package com.platforma.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Executor for async MVC handlers. Services returning CompletableFuture continue their
+ * request work (JPA, token issuing) here, so dedicated pools such as PasswordHasher's
+ * only run the work they were sized for.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${mvc.async.core-pool:8}")
+    private int corePool;
+
+    @Value("${mvc.async.max-pool:32}")
+    private int maxPool;
+
+    @Value("${mvc.async.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${mvc.async.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePool);
+        executor.setMaxPoolSize(maxPool);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
@@ -2,6 +2,7 @@ package com.platforma.backend.config;
 
 import com.platforma.backend.auth.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -58,9 +59,10 @@ public class SecurityConfig {
         return source;
     }
 
+    // costul tinta; hash-urile mai slabe sunt refacute la urmatorul login reusit (AuthenticationService)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
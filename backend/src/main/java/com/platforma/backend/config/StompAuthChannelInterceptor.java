@@ -1,7 +1,7 @@
 package com.platforma.backend.config;
 
 import com.platforma.backend.auth.JwtService;
-import com.platforma.backend.user.UserRepository;
+import com.platforma.backend.auth.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -18,7 +18,7 @@ import java.util.List;
 public class StompAuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -31,13 +31,13 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
             }
 
             String token = authHeader.substring("Bearer ".length()).trim();
-            String email = jwtService.extractUsername(token);
-            if (email == null || email.isBlank()) {
+            JwtService.VerifiedToken jwt = jwtService.verify(token);
+            if (jwt == null) {
                 throw new MessagingException("Invalid token");
             }
 
-            var user = userRepository.findByEmail(email).orElseThrow();
-            if (!jwtService.isValid(token, user)) {
+            String email = jwt.subject();
+            if (principalCache.get(email) == null) {
                 throw new MessagingException("Invalid token");
             }
 
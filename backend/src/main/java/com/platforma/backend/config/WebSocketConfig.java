@@ -1,11 +1,23 @@
 package com.platforma.backend.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 
+/**
+ * STOMP over SockJS. {@code realtime.broker.mode} picks the broker:
+ * <ul>
+ *   <li>{@code relay} - external STOMP broker (needed when running more than one node)</li>
+ *   <li>{@code simple} - in-process broker, no extra service to run</li>
+ * </ul>
+ * In both modes each session's outbound buffer is bounded; a client that cannot keep up
+ * within the send time / buffer limits gets its session closed instead of growing the heap.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
@@ -13,6 +25,65 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
 
+    @Value("${realtime.broker.mode:relay}")
+    private String brokerMode;
+
+    @Value("${realtime.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${realtime.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${realtime.broker.relay-login:app}")
+    private String relayLogin;
+
+    @Value("${realtime.broker.relay-passcode:app}")
+    private String relayPasscode;
+
+    @Value("${realtime.broker.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    // mai strans decat default-ul Spring (10 s): un client blocat e deconectat inainte de urmatorul heartbeat
+    @Value("${realtime.session.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    // cadrele noastre sunt mici (delte, mesaje cu preview); 256 KB = cateva sute de cadre in asteptare
+    @Value("${realtime.session.send-buffer-bytes:262144}")
+    private int sendBufferBytes;
+
+    // clientii trimit doar CONNECT (cu JWT) si SUBSCRIBE, nu exista @MessageMapping
+    @Value("${realtime.session.message-size-bytes:16384}")
+    private int messageSizeBytes;
+
+    @Value("${realtime.inbound.core-pool:4}")
+    private int inboundCorePool;
+
+    @Value("${realtime.inbound.max-pool:16}")
+    private int inboundMaxPool;
+
+    @Value("${realtime.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${realtime.outbound.core-pool:4}")
+    private int outboundCorePool;
+
+    @Value("${realtime.outbound.max-pool:16}")
+    private int outboundMaxPool;
+
+    @Value("${realtime.outbound.queue-capacity:5000}")
+    private int outboundQueueCapacity;
+
+    /**
+     * Heartbeats of the in-process broker. A managed bean so it is shut down with the context.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler wsHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        return scheduler;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry
@@ -24,6 +95,27 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(stompAuthChannelInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePool)
+                .maxPoolSize(inboundMaxPool)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePool)
+                .maxPoolSize(outboundMaxPool)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // limitele per sesiune (ConcurrentWebSocketSessionDecorator): depasite -> sesiunea se inchide
+        registration
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferBytes)
+                .setMessageSizeLimit(messageSizeBytes);
     }
 
     @Override
@@ -31,13 +123,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
 
+        if ("simple".equalsIgnoreCase(brokerMode)) {
+            registry.enableSimpleBroker("/topic", "/queue")
+                    .setTaskScheduler(wsHeartbeatScheduler())
+                    .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs});
+            return;
+        }
+
         registry.enableStompBrokerRelay("/topic", "/queue")
-                .setRelayHost("localhost")
-                .setRelayPort(61613)
-                .setClientLogin("app")
-                .setClientPasscode("app")
-                .setSystemLogin("app")
-                .setSystemPasscode("app");
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode);
 
     }
 }
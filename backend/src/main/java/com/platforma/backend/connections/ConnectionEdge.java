@@ -0,0 +1,10 @@
+package com.platforma.backend.connections;
+
+import java.time.Instant;
+
+public record ConnectionEdge(
+        Long requesterId,
+        Long addresseeId,
+        ConnectionRequest.Status status,
+        Instant createdAt
+) {}
@@ -0,0 +1,340 @@
+package com.platforma.backend.connections;
+
+import com.platforma.backend.common.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory social graph: per user, sorted long[] adjacency for accepted,
+ * outgoing-pending and incoming-pending connections, plus the accepted ones
+ * newest request first (the order of the connections list).
+ *
+ * Arrays are copy-on-write, so reads are lock-free; writes are rare and go
+ * through {@link #apply}. Warmed at startup with one streaming query and
+ * updated by ConnectionsService after each commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionGraph {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final ConnectionRequestRepository connectionRequestRepository;
+
+    private volatile Map<Long, Adjacency> graph = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // mutatii venite in timpul warm-up-ului, reaplicate dupa swap
+    private final List<Runnable> pending = new ArrayList<>();
+
+    /**
+     * {@code recent} holds the accepted ids ordered by request createdAt desc,
+     * {@code recentAt} the matching createdAt values (epoch ms).
+     */
+    public record Adjacency(long[] accepted, long[] outgoing, long[] incoming, long[] recent, long[] recentAt) {
+        static final Adjacency NONE = new Adjacency(EMPTY, EMPTY, EMPTY, EMPTY, EMPTY);
+
+        Adjacency withOutgoing(long[] o) {
+            return new Adjacency(accepted, o, incoming, recent, recentAt);
+        }
+
+        Adjacency withIncoming(long[] i) {
+            return new Adjacency(accepted, outgoing, i, recent, recentAt);
+        }
+
+        Adjacency connect(long other, long at) {
+            long[] r = recent;
+            long[] rAt = recentAt;
+            if (Arrays.binarySearch(accepted, other) < 0) {
+                // primul cu createdAt mai mic: dupa el intra noua conexiune
+                int pos = 0;
+                while (pos < rAt.length && rAt[pos] >= at) pos++;
+                r = insertAt(recent, pos, other);
+                rAt = insertAt(recentAt, pos, at);
+            }
+            return new Adjacency(add(accepted, other), remove(outgoing, other), remove(incoming, other), r, rAt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Map<Long, Builder> builders = new HashMap<>();
+
+        try (Stream<ConnectionEdge> edges = connectionRequestRepository.streamOpenEdges()) {
+            // muchiile vin in ordinea createdAt desc, deci listele "recent" se construiesc deja ordonate
+            edges.forEach(e -> {
+                Builder from = builders.computeIfAbsent(e.requesterId(), k -> new Builder());
+                Builder to = builders.computeIfAbsent(e.addresseeId(), k -> new Builder());
+
+                if (e.status() == ConnectionRequest.Status.ACCEPTED) {
+                    long at = millis(e.createdAt());
+                    from.connect(e.addresseeId(), at);
+                    to.connect(e.requesterId(), at);
+                } else if (e.status() == ConnectionRequest.Status.PENDING) {
+                    from.outgoing.add(e.addresseeId());
+                    to.incoming.add(e.requesterId());
+                }
+            });
+        }
+
+        Map<Long, Adjacency> built = new ConcurrentHashMap<>(Math.max(16, builders.size() * 2));
+        builders.forEach((id, b) -> built.put(id, b.build()));
+
+        synchronized (this) {
+            graph = built;
+            ready = true;
+            pending.forEach(Runnable::run);
+            pending.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Adjacency of(Long userId) {
+        Adjacency a = userId == null ? null : graph.get(userId);
+        return a == null ? Adjacency.NONE : a;
+    }
+
+    public long[] connectionsOf(Long userId) {
+        return of(userId).accepted();
+    }
+
+    /**
+     * Accepted connections, newest request first. The array is shared: do not modify it.
+     */
+    public long[] connectionsByRecency(Long userId) {
+        return of(userId).recent();
+    }
+
+    public boolean isConnected(Long a, Long b) {
+        return b != null && Arrays.binarySearch(of(a).accepted(), b) >= 0;
+    }
+
+    /**
+     * NONE | OUTGOING_PENDING | INCOMING_PENDING | CONNECTED, from {@code me}'s point of view.
+     */
+    public String statusBetween(Long me, Long other) {
+        Adjacency a = of(me);
+        if (Arrays.binarySearch(a.accepted(), other) >= 0) return "CONNECTED";
+        if (Arrays.binarySearch(a.outgoing(), other) >= 0) return "OUTGOING_PENDING";
+        if (Arrays.binarySearch(a.incoming(), other) >= 0) return "INCOMING_PENDING";
+        return "NONE";
+    }
+
+    /**
+     * Number of accepted connections {@code a} and {@code b} have in common (sorted-array intersection).
+     */
+    public int mutualCount(Long a, Long b) {
+        long[] x = of(a).accepted();
+        long[] y = of(b).accepted();
+        int i = 0, j = 0, n = 0;
+        while (i < x.length && j < y.length) {
+            if (x[i] == y[j]) {
+                n++;
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n;
+    }
+
+    public record Suggestion(long userId, int mutualCount) {}
+
+    /**
+     * Second-degree "people you may know": friends of friends that are not me, not already
+     * connected and without a pending request either way, ranked by mutual connections.
+     *
+     * Counts are exact: the friends' sorted lists are merged with a heap of cursors, so every
+     * candidate's mutual count is the number of lists it appears in, at O(total * log friends)
+     * and without a map of all friends of friends.
+     */
+    public List<Suggestion> suggestions(Long me, int limit) {
+        Adjacency mine = of(me);
+        if (mine.accepted().length == 0 || limit <= 0) return List.of();
+
+        long[][] lists = new long[mine.accepted().length][];
+        int[] pos = new int[lists.length];
+        PriorityQueue<Integer> cursors = new PriorityQueue<>(lists.length, Comparator.comparingLong(i -> lists[i][pos[i]]));
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = of(mine.accepted()[i]).accepted();
+            if (lists[i].length > 0) cursors.add(i);
+        }
+
+        Comparator<Suggestion> best = Comparator.comparingInt(Suggestion::mutualCount).reversed()
+                .thenComparingLong(Suggestion::userId);
+        // top-K: min-heap de dimensiune limit
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, best.reversed());
+
+        while (!cursors.isEmpty()) {
+            int i = cursors.poll();
+            long id = lists[i][pos[i]];
+            int mutual = 1;
+            advance(i, lists, pos, cursors);
+
+            // acelasi id in restul listelor: cate un prieten comun pentru fiecare
+            while (!cursors.isEmpty() && lists[cursors.peek()][pos[cursors.peek()]] == id) {
+                int j = cursors.poll();
+                mutual++;
+                advance(j, lists, pos, cursors);
+            }
+
+            if (id == me
+                    || Arrays.binarySearch(mine.accepted(), id) >= 0
+                    || Arrays.binarySearch(mine.outgoing(), id) >= 0
+                    || Arrays.binarySearch(mine.incoming(), id) >= 0) {
+                continue;
+            }
+
+            top.offer(new Suggestion(id, mutual));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<Suggestion> out = new ArrayList<>(top);
+        out.sort(best);
+        return out;
+    }
+
+    private static void advance(int i, long[][] lists, int[] pos, PriorityQueue<Integer> cursors) {
+        if (++pos[i] < lists[i].length) cursors.add(i);
+    }
+
+    // --- mutatii (aplicate dupa commit) ---
+
+    public void requested(Long requesterId, Long addresseeId) {
+        AfterCommit.run(() -> apply(() -> {
+            update(requesterId, a -> a.withOutgoing(add(a.outgoing(), addresseeId)));
+            update(addresseeId, a -> a.withIncoming(add(a.incoming(), requesterId)));
+        }));
+    }
+
+    /**
+     * {@code requestedAt} is the request's createdAt, which orders the connections list.
+     */
+    public void accepted(Long requesterId, Long addresseeId, Instant requestedAt) {
+        long at = millis(requestedAt);
+        AfterCommit.run(() -> apply(() -> {
+            update(requesterId, a -> a.connect(addresseeId, at));
+            update(addresseeId, a -> a.connect(requesterId, at));
+        }));
+    }
+
+    public void rejected(Long requesterId, Long addresseeId) {
+        AfterCommit.run(() -> apply(() -> {
+            update(requesterId, a -> a.withOutgoing(remove(a.outgoing(), addresseeId)));
+            update(addresseeId, a -> a.withIncoming(remove(a.incoming(), requesterId)));
+        }));
+    }
+
+    private synchronized void apply(Runnable mutation) {
+        if (!ready) pending.add(mutation);
+        mutation.run();
+    }
+
+    private void update(Long userId, UnaryOperator<Adjacency> fn) {
+        graph.compute(userId, (id, prev) -> fn.apply(prev == null ? Adjacency.NONE : prev));
+    }
+
+    private static long[] add(long[] sorted, long v) {
+        int i = Arrays.binarySearch(sorted, v);
+        if (i >= 0) return sorted;
+        int at = -i - 1;
+        long[] out = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        out[at] = v;
+        System.arraycopy(sorted, at, out, at + 1, sorted.length - at);
+        return out;
+    }
+
+    private static long[] insertAt(long[] values, int at, long v) {
+        long[] out = new long[values.length + 1];
+        System.arraycopy(values, 0, out, 0, at);
+        out[at] = v;
+        System.arraycopy(values, at, out, at + 1, values.length - at);
+        return out;
+    }
+
+    private static long millis(Instant at) {
+        return at == null ? 0L : at.toEpochMilli();
+    }
+
+    private static long[] remove(long[] sorted, long v) {
+        int i = Arrays.binarySearch(sorted, v);
+        if (i < 0) return sorted;
+        if (sorted.length == 1) return EMPTY;
+        long[] out = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, out, 0, i);
+        System.arraycopy(sorted, i + 1, out, i, sorted.length - i - 1);
+        return out;
+    }
+
+    private static final class Builder {
+        final LongList accepted = new LongList();
+        final LongList outgoing = new LongList();
+        final LongList incoming = new LongList();
+        final LongList recent = new LongList();
+        final LongList recentAt = new LongList();
+
+        void connect(long other, long at) {
+            accepted.add(other);
+            recent.add(other);
+            recentAt.add(at);
+        }
+
+        Adjacency build() {
+            long[] acc = accepted.sortedDistinct();
+            long[] r = Arrays.copyOf(recent.values, recent.size);
+            long[] rAt = Arrays.copyOf(recentAt.values, recentAt.size);
+
+            if (r.length != acc.length) {
+                // ambele directii acceptate: pastram cea mai recenta cerere
+                Set<Long> seen = new HashSet<>();
+                int n = 0;
+                for (int i = 0; i < r.length; i++) {
+                    if (!seen.add(r[i])) continue;
+                    r[n] = r[i];
+                    rAt[n++] = rAt[i];
+                }
+                r = Arrays.copyOf(r, n);
+                rAt = Arrays.copyOf(rAt, n);
+            }
+            return new Adjacency(acc, outgoing.sortedDistinct(), incoming.sortedDistinct(), r, rAt);
+        }
+    }
+
+    private static final class LongList {
+        long[] values = EMPTY;
+        int size;
+
+        void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, Math.max(4, size * 2));
+            values[size++] = v;
+        }
+
+        long[] sortedDistinct() {
+            if (size == 0) return EMPTY;
+            long[] out = Arrays.copyOf(values, size);
+            Arrays.sort(out);
+            int n = 1;
+            for (int i = 1; i < out.length; i++) {
+                if (out[i] != out[n - 1]) out[n++] = out[i];
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.platforma.backend.connections;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ConnectionRequestRepository extends JpaRepository<ConnectionRequest, Long> {
 
@@ -14,6 +19,7 @@ public interface ConnectionRequestRepository extends JpaRepository<ConnectionReq
     @Query("""
         select cr
         from ConnectionRequest cr
+        join fetch cr.requester
         where cr.addressee.id = :userId and cr.status = com.platforma.backend.connections.ConnectionRequest.Status.PENDING
         order by cr.createdAt desc
     """)
@@ -27,12 +33,35 @@ public interface ConnectionRequestRepository extends JpaRepository<ConnectionReq
     """)
     List<ConnectionRequest> findAllForUser(@Param("userId") Long userId);
 
+    // doar id-ul celeilalte parti, cele mai recente conexiuni primele
     @Query("""
-        select cr
+        select case when cr.requester.id = :userId then cr.addressee.id else cr.requester.id end
         from ConnectionRequest cr
         where cr.status = com.platforma.backend.connections.ConnectionRequest.Status.ACCEPTED
           and (cr.requester.id = :userId or cr.addressee.id = :userId)
         order by cr.createdAt desc
     """)
-    List<ConnectionRequest> findAcceptedForUser(@Param("userId") Long userId);
+    List<Long> findAcceptedOtherIds(@Param("userId") Long userId);
+
+    @Query("""
+        select new com.platforma.backend.connections.ConnectionStatusRow(
+            case when cr.requester.id = :userId then cr.addressee.id else cr.requester.id end,
+            cr.status,
+            case when cr.requester.id = :userId then true else false end
+        )
+        from ConnectionRequest cr
+        where (cr.requester.id = :userId and cr.addressee.id in :otherIds)
+           or (cr.addressee.id = :userId and cr.requester.id in :otherIds)
+    """)
+    List<ConnectionStatusRow> findStatuses(@Param("userId") Long userId, @Param("otherIds") Collection<Long> otherIds);
+
+    // warm-up pentru ConnectionGraph: doar id-uri, fara entitati; cele mai noi primele
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        select new com.platforma.backend.connections.ConnectionEdge(cr.requester.id, cr.addressee.id, cr.status, cr.createdAt)
+        from ConnectionRequest cr
+        where cr.status <> com.platforma.backend.connections.ConnectionRequest.Status.REJECTED
+        order by cr.createdAt desc
+    """)
+    Stream<ConnectionEdge> streamOpenEdges();
 }
@@ -0,0 +1,45 @@
+package com.platforma.backend.connections;
+
+import com.platforma.backend.common.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user cache of matching-card statuses (otherId -> NONE | OUTGOING_PENDING | INCOMING_PENDING | CONNECTED).
+ * Bounded LRU over users; both sides of a pair are evicted on request / accept / reject.
+ *
+ * Only serves the window before {@link ConnectionGraph} is warm: once the graph is ready,
+ * statuses are read from it and this cache is no longer filled.
+ */
+@Component
+public class ConnectionStatusCache {
+
+    private final Map<Long, Map<Long, String>> byUser;
+
+    public ConnectionStatusCache(@Value("${connections.status-cache.max-users:10000}") int maxUsers) {
+        this.byUser = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Long, String>> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public Map<Long, String> forUser(Long userId) {
+        return byUser.computeIfAbsent(userId, k -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Evicts now and again after commit, so a concurrent read of the old row
+     * cannot repopulate the cache with a stale status.
+     */
+    public void evict(Long... userIds) {
+        for (Long id : userIds) byUser.remove(id);
+        AfterCommit.run(() -> {
+            for (Long id : userIds) byUser.remove(id);
+        });
+    }
+}
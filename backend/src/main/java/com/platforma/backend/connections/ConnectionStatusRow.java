@@ -0,0 +1,11 @@
+package com.platforma.backend.connections;
+
+/**
+ * Projection for matching cards: status of the pair (me, otherId),
+ * outgoing = true when I am the requester.
+ */
+public record ConnectionStatusRow(
+        Long otherId,
+        ConnectionRequest.Status status,
+        boolean outgoing
+) {}
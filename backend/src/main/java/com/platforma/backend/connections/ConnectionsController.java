@@ -2,6 +2,7 @@ package com.platforma.backend.connections;
 
 import com.platforma.backend.connections.dto.ConnectionRequestDto;
 import com.platforma.backend.connections.dto.ConnectedProfileDto;
+import com.platforma.backend.connections.dto.ConnectionSuggestionDto;
 import com.platforma.backend.user.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -40,4 +41,12 @@ public class ConnectionsController {
     public List<ConnectedProfileDto> connections(@AuthenticationPrincipal User currentUser) {
         return connectionsService.connections(currentUser);
     }
+
+    @GetMapping("/suggestions")
+    public List<ConnectionSuggestionDto> suggestions(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return connectionsService.suggestions(currentUser, limit);
+    }
 }
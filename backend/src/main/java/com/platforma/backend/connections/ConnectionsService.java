@@ -3,13 +3,15 @@ package com.platforma.backend.connections;
 import com.platforma.backend.connections.dto.ConnectionNotificationDto;
 import com.platforma.backend.connections.dto.ConnectionRequestDto;
 import com.platforma.backend.connections.dto.ConnectedProfileDto;
+import com.platforma.backend.connections.dto.ConnectionSuggestionDto;
+import com.platforma.backend.matching.MatchingIndex;
 import com.platforma.backend.profile.Profile;
 import com.platforma.backend.profile.ProfileService;
 import com.platforma.backend.user.User;
 import com.platforma.backend.user.UserRepository;
+import com.platforma.backend.ws.RealtimeOutbox;
 import com.platforma.backend.ws.WsEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +27,10 @@ public class ConnectionsService {
     private final ConnectionRequestRepository connectionRequestRepository;
     private final UserRepository userRepository;
     private final ProfileService profileService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RealtimeOutbox outbox;
+    private final ConnectionStatusCache statusCache;
+    private final ConnectionGraph connectionGraph;
+    private final MatchingIndex matchingIndex;
 
     @Transactional
     public ConnectionRequest requestConnection(User currentUser, Long otherUserId) {
@@ -40,6 +45,7 @@ public class ConnectionsService {
         }
 
         User other = userRepository.findById(otherUserId).orElseThrow();
+        statusCache.evict(currentUser.getId(), otherUserId);
 
         // există deja request în direcția asta?
         Optional<ConnectionRequest> existing = connectionRequestRepository
@@ -51,6 +57,7 @@ public class ConnectionsService {
             if (cr.getStatus() == REJECTED) {
                 cr.setStatus(PENDING);
                 ConnectionRequest saved = connectionRequestRepository.save(cr);
+                connectionGraph.requested(currentUser.getId(), otherUserId);
                 notifyUser(other.getEmail(), "CONNECTION_REQUEST", saved.getId(), currentUser.getId());
                 return saved;
             }
@@ -65,6 +72,7 @@ public class ConnectionsService {
             ConnectionRequest cr = reverse.get();
             cr.setStatus(ACCEPTED);
             ConnectionRequest saved = connectionRequestRepository.save(cr);
+            connectionGraph.accepted(otherUserId, currentUser.getId(), cr.getCreatedAt());
 
             notifyUser(other.getEmail(), "CONNECTION_ACCEPTED", saved.getId(), currentUser.getId());
             notifyUser(currentUser.getEmail(), "CONNECTION_ACCEPTED", saved.getId(), otherUserId);
@@ -79,6 +87,7 @@ public class ConnectionsService {
                 .build();
 
         ConnectionRequest saved = connectionRequestRepository.save(created);
+        connectionGraph.requested(currentUser.getId(), otherUserId);
         notifyUser(other.getEmail(), "CONNECTION_REQUEST", saved.getId(), currentUser.getId());
         return saved;
     }
@@ -88,9 +97,14 @@ public class ConnectionsService {
         Long me = currentUser.getId();
         List<ConnectionRequest> reqs = connectionRequestRepository.findIncomingPending(me);
 
+        // requester vine cu join fetch, profilele intr-un singur IN
+        Map<Long, Profile> profiles = profileService.getProfiles(
+                reqs.stream().map(cr -> cr.getRequester().getId()).toList()
+        );
+
         return reqs.stream().map(cr -> {
             User from = cr.getRequester();
-            Profile p = profileService.getProfile(from.getId());
+            Profile p = profiles.get(from.getId());
 
             return new ConnectionRequestDto(
                     cr.getId(),
@@ -112,8 +126,10 @@ public class ConnectionsService {
         }
         if (cr.getStatus() != PENDING) return;
 
+        statusCache.evict(cr.getRequester().getId(), cr.getAddressee().getId());
         cr.setStatus(ACCEPTED);
         connectionRequestRepository.save(cr);
+        connectionGraph.accepted(cr.getRequester().getId(), cr.getAddressee().getId(), cr.getCreatedAt());
 
         notifyUser(cr.getRequester().getEmail(), "CONNECTION_ACCEPTED", cr.getId(), currentUser.getId());
         notifyUser(cr.getAddressee().getEmail(), "CONNECTION_ACCEPTED", cr.getId(), cr.getRequester().getId());
@@ -127,30 +143,99 @@ public class ConnectionsService {
         }
         if (cr.getStatus() != PENDING) return;
 
+        statusCache.evict(cr.getRequester().getId(), cr.getAddressee().getId());
         cr.setStatus(REJECTED);
         connectionRequestRepository.save(cr);
+        connectionGraph.rejected(cr.getRequester().getId(), cr.getAddressee().getId());
 
         notifyUser(cr.getRequester().getEmail(), "CONNECTION_REJECTED", cr.getId(), currentUser.getId());
     }
 
     @Transactional(readOnly = true)
     public List<ConnectedProfileDto> connections(User currentUser) {
-        Long me = currentUser.getId();
-        List<ConnectionRequest> accepted = connectionRequestRepository.findAcceptedForUser(me);
-
-        return accepted.stream().map(cr -> {
-            User other = Objects.equals(cr.getRequester().getId(), me) ? cr.getAddressee() : cr.getRequester();
-            Profile p = profileService.getProfile(other.getId());
-
-            return new ConnectedProfileDto(
-                    other.getId(),
-                    other.getFirstName(),
-                    other.getLastName(),
-                    other.getRole() == null ? null : other.getRole().name(),
-                    p == null ? null : p.getHeadline(),
-                    p == null ? null : p.getAvatarUrl()
-            );
-        }).collect(Collectors.toList());
+        List<Long> otherIds;
+        if (connectionGraph.isReady()) {
+            long[] recent = connectionGraph.connectionsByRecency(currentUser.getId());
+            otherIds = new ArrayList<>(recent.length);
+            for (long id : recent) otherIds.add(id);
+        } else {
+            // pana se incarca graful
+            otherIds = connectionRequestRepository.findAcceptedOtherIds(currentUser.getId());
+        }
+
+        // numele / avatarul vin din MatchingIndex; ce lipseste din index se citeste din DB
+        Map<Long, ConnectedProfileDto> byId = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long otherId : otherIds) {
+            MatchingIndex.Entry e = matchingIndex.get(otherId);
+            if (e == null) {
+                missing.add(otherId);
+                continue;
+            }
+
+            byId.put(otherId, new ConnectedProfileDto(
+                    e.userId(),
+                    e.firstName(),
+                    e.lastName(),
+                    e.role() == null ? null : e.role().name(),
+                    e.headline(),
+                    e.avatarUrl()
+            ));
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Profile> profiles = profileService.getProfiles(missing);
+            for (User other : userRepository.findAllById(missing)) {
+                Profile p = profiles.get(other.getId());
+                byId.put(other.getId(), new ConnectedProfileDto(
+                        other.getId(),
+                        other.getFirstName(),
+                        other.getLastName(),
+                        other.getRole() == null ? null : other.getRole().name(),
+                        p == null ? null : p.getHeadline(),
+                        p == null ? null : p.getAvatarUrl()
+                ));
+            }
+        }
+
+        // pastram ordinea (createdAt desc)
+        List<ConnectedProfileDto> out = new ArrayList<>(otherIds.size());
+        for (Long otherId : otherIds) {
+            ConnectedProfileDto dto = byId.get(otherId);
+            if (dto != null) out.add(dto);
+        }
+        return out;
+    }
+
+    public List<ConnectionSuggestionDto> suggestions(User currentUser, int limit) {
+        if (!connectionGraph.isReady()) return List.of();
+
+        int safeLimit = Math.max(1, Math.min(limit, 50));
+        List<ConnectionSuggestionDto> out = new ArrayList<>();
+        for (ConnectionGraph.Suggestion s : connectionGraph.suggestions(currentUser.getId(), safeLimit)) {
+            MatchingIndex.Entry e = matchingIndex.get(s.userId());
+            if (e == null) continue;
+
+            out.add(new ConnectionSuggestionDto(
+                    e.userId(),
+                    e.firstName(),
+                    e.lastName(),
+                    e.role() == null ? null : e.role().name(),
+                    e.headline(),
+                    e.avatarUrl(),
+                    s.mutualCount()
+            ));
+        }
+        return out;
+    }
+
+    // folosit de matching pentru "N conexiuni comune" pe card
+    public Map<Long, Integer> getMutualCounts(User currentUser, Collection<Long> otherUserIds) {
+        if (otherUserIds == null || otherUserIds.isEmpty() || !connectionGraph.isReady()) return Map.of();
+
+        Map<Long, Integer> out = new HashMap<>();
+        for (Long id : otherUserIds) out.put(id, connectionGraph.mutualCount(currentUser.getId(), id));
+        return out;
     }
 
     // folosit de matching ca să afișeze status pe card
@@ -159,35 +244,56 @@ public class ConnectionsService {
         Long me = currentUser.getId();
         if (otherUserIds == null || otherUserIds.isEmpty()) return Map.of();
 
-        List<ConnectionRequest> all = connectionRequestRepository.findAllForUser(me);
+        if (connectionGraph.isReady()) {
+            Map<Long, String> status = new HashMap<>();
+            for (Long id : otherUserIds) status.put(id, connectionGraph.statusBetween(me, id));
+            return status;
+        }
+
+        // pana se incarca graful: proiectie pe pagina curenta + cache
+        Map<Long, String> cached = statusCache.forUser(me);
 
         Map<Long, String> status = new HashMap<>();
-        for (ConnectionRequest cr : all) {
-            Long otherId = Objects.equals(cr.getRequester().getId(), me) ? cr.getAddressee().getId() : cr.getRequester().getId();
-            if (!otherUserIds.contains(otherId)) continue;
-
-            if (cr.getStatus() == ACCEPTED) {
-                status.put(otherId, "CONNECTED");
-            } else if (cr.getStatus() == PENDING) {
-                if (Objects.equals(cr.getRequester().getId(), me)) status.put(otherId, "OUTGOING_PENDING");
-                else status.put(otherId, "INCOMING_PENDING");
-            } else {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : otherUserIds) {
+            String s = cached.get(id);
+            if (s != null) status.put(id, s);
+            else missing.add(id);
+        }
+        if (missing.isEmpty()) return status;
+
+        // doar perechile (me, id) din pagina curenta, fara entitati
+        Map<Long, String> loaded = new HashMap<>();
+        for (ConnectionStatusRow row : connectionRequestRepository.findStatuses(me, missing)) {
+            String s = switch (row.status()) {
+                case ACCEPTED -> "CONNECTED";
+                case PENDING -> row.outgoing() ? "OUTGOING_PENDING" : "INCOMING_PENDING";
                 // REJECTED: în UI îl tratăm ca NONE
-                if (!status.containsKey(otherId)) status.put(otherId, "NONE");
-            }
+                case REJECTED -> "NONE";
+            };
+            loaded.merge(row.otherId(), s, ConnectionsService::stronger);
         }
 
         // default NONE
-        for (Long id : otherUserIds) status.putIfAbsent(id, "NONE");
+        for (Long id : missing) loaded.putIfAbsent(id, "NONE");
 
+        cached.putAll(loaded);
+        status.putAll(loaded);
         return status;
     }
 
+    // pot exista doua request-uri (cate unul pe directie): CONNECTED > PENDING > NONE
+    private static String stronger(String a, String b) {
+        if ("CONNECTED".equals(a) || "CONNECTED".equals(b)) return "CONNECTED";
+        if (!"NONE".equals(a)) return a;
+        return b;
+    }
+
     private void notifyUser(String userEmail, String kind, Long requestId, Long fromUserId) {
         if (userEmail == null || userEmail.isBlank()) return;
 
         ConnectionNotificationDto dto = new ConnectionNotificationDto(kind, requestId, fromUserId);
-        messagingTemplate.convertAndSendToUser(
+        outbox.publishToUser(
                 userEmail,
                 "/queue/notifications",
                 new WsEvent("CONNECTION", dto)
@@ -0,0 +1,11 @@
+package com.platforma.backend.connections.dto;
+
+public record ConnectionSuggestionDto(
+        Long userId,
+        String firstName,
+        String lastName,
+        String role,
+        String headline,
+        String avatarUrl,
+        int mutualCount
+) {}
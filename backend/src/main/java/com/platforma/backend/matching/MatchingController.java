@@ -1,12 +1,11 @@
 package com.platforma.backend.matching;
 
-import com.platforma.backend.common.PageResponse;
 import com.platforma.backend.connections.ConnectionsService;
+import com.platforma.backend.matching.dto.MatchingPageResponse;
 import com.platforma.backend.matching.dto.MatchingProfileDto;
-import com.platforma.backend.profile.Profile;
-import com.platforma.backend.profile.ProfileService;
+import com.platforma.backend.profile.Availability;
+import com.platforma.backend.profile.ExperienceLevel;
 import com.platforma.backend.user.User;
-import com.platforma.backend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +14,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,9 +21,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MatchingController {
 
-    private final UserRepository userRepository;
-    private final ProfileService profileService;
+    private final MatchingIndex matchingIndex;
     private final ConnectionsService connectionsService;
+    private final MatchingRecommendationService recommendationService;
 
     public enum SortBy {
         NAME,
@@ -33,11 +31,12 @@ public class MatchingController {
         AVAILABILITY,
         OPEN_TO_PROJECTS,
         OPEN_TO_MENTORING,
-        EXPERIENCE_LEVEL
+        EXPERIENCE_LEVEL,
+        RELEVANCE
     }
 
     @GetMapping("/profiles")
-    public PageResponse<MatchingProfileDto> list(
+    public MatchingPageResponse list(
             @AuthenticationPrincipal User currentUser,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "20") int size,
@@ -47,201 +46,161 @@ public class MatchingController {
             @RequestParam(value = "openToProjects", required = false) Boolean openToProjects,
             @RequestParam(value = "openToMentoring", required = false) Boolean openToMentoring,
             @RequestParam(value = "experienceLevel", required = false) String experienceLevel,
+            @RequestParam(value = "role", required = false) String role,
             @RequestParam(value = "sort", defaultValue = "NAME") SortBy sort,
-            @RequestParam(value = "dir", defaultValue = "ASC") String dir
+            @RequestParam(value = "dir", defaultValue = "ASC") String dir,
+            @RequestParam(value = "mode", required = false) String mode
     ) {
         int safePage = Math.max(0, page);
         int safeSize = Math.min(100, Math.max(1, size));
 
-        String query = norm(q);
-        String exp = norm(expertiseArea);
-        String av = norm(availability);
-        String lvl = norm(experienceLevel);
         boolean asc = !(dir != null && dir.equalsIgnoreCase("DESC"));
 
         Long me = currentUser == null ? null : currentUser.getId();
 
-        List<User> users = userRepository.findAll().stream()
-                .filter(u -> u != null && u.getId() != null)
-                .filter(u -> me == null || !Objects.equals(u.getId(), me))
-                .toList();
-
-        List<MatchingProfileDto> all = new ArrayList<>(users.size());
-        for (User u : users) {
-            Profile p = profileService.getProfile(u.getId());
-            all.add(toDto(u, p, "NONE"));
-        }
-
-        if (!query.isEmpty()) {
-            String ql = query.toLowerCase(Locale.ROOT);
-            all = all.stream()
-                    .filter(x -> joinName(x.firstName(), x.lastName()).toLowerCase(Locale.ROOT).contains(ql))
-                    .collect(Collectors.toList());
-        }
-
-        if (!exp.isEmpty()) {
-            String el = exp.toLowerCase(Locale.ROOT);
-            all = all.stream()
-                    .filter(x -> {
-                        List<String> areas = x.expertAreas() == null ? List.of() : x.expertAreas();
-                        return areas.stream().anyMatch(a -> norm(a).toLowerCase(Locale.ROOT).contains(el));
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        if (!av.isEmpty()) {
-            String avl = av.toLowerCase(Locale.ROOT);
-            all = all.stream()
-                    .filter(x -> norm(x.availability()).toLowerCase(Locale.ROOT).equals(avl))
-                    .collect(Collectors.toList());
-        }
-
-        if (openToProjects != null) {
-            all = all.stream()
-                    .filter(x -> Boolean.TRUE.equals(x.openToProjects()) == openToProjects)
-                    .collect(Collectors.toList());
-        }
+        BitSet hits = matchingIndex.filter(new MatchingIndex.Filter(
+                me,
+                norm(q),
+                norm(expertiseArea),
+                norm(availability),
+                norm(experienceLevel),
+                norm(role),
+                openToProjects,
+                openToMentoring
+        ));
+
+        Comparator<MatchingIndex.Entry> cmp = comparator(sort);
+        if (!asc) cmp = cmp.reversed();
 
-        if (openToMentoring != null) {
-            all = all.stream()
-                    .filter(x -> Boolean.TRUE.equals(x.openToMentoring()) == openToMentoring)
-                    .collect(Collectors.toList());
+        long total = hits.cardinality();
+        int totalPages = (int) Math.ceil(total / (double) safeSize);
+        int from = (int) Math.min((long) safePage * safeSize, total);
+
+        // mode=precomputed: lista salvata de job, filtrata cu aceleasi facets
+        List<Long> precomputed = me != null && "precomputed".equalsIgnoreCase(norm(mode))
+                ? recommendationService.recommendedFor(me)
+                : null;
+
+        List<MatchingIndex.Entry> pageEntries = List.of();
+        if (precomputed != null) {
+            List<MatchingIndex.Entry> ranked = matchingIndex.resolve(precomputed, hits);
+            total = ranked.size();
+            totalPages = (int) Math.ceil(total / (double) safeSize);
+            from = (int) Math.min((long) safePage * safeSize, total);
+            pageEntries = ranked.subList(from, (int) Math.min((long) from + safeSize, total));
+        } else if (from < total && sort == SortBy.RELEVANCE) {
+            pageEntries = relevancePage(matchingIndex.get(me), hits, from, safeSize);
+        } else if (from < total) {
+            TopK<MatchingIndex.Entry> top = new TopK<>(cmp, from, safeSize);
+            matchingIndex.forEach(hits, top::offer);
+            pageEntries = top.page();
         }
 
-        if (!lvl.isEmpty()) {
-            String ll = lvl.toLowerCase(Locale.ROOT);
-            all = all.stream()
-                    .filter(x -> norm(x.experienceLevel()).toLowerCase(Locale.ROOT).equals(ll))
-                    .collect(Collectors.toList());
+        // pune status-urile de connect (doar pentru user logat si doar pentru pagina curenta)
+        Map<Long, String> statuses = Map.of();
+        Map<Long, Integer> mutual = Map.of();
+        if (me != null && !pageEntries.isEmpty()) {
+            Set<Long> ids = pageEntries.stream().map(MatchingIndex.Entry::userId).collect(Collectors.toSet());
+            statuses = connectionsService.getStatusesForMatching(currentUser, ids);
+            mutual = connectionsService.getMutualCounts(currentUser, ids);
         }
 
-        // pune status-urile de connect (doar pentru user logat)
-        if (me != null) {
-            Set<Long> ids = all.stream().map(MatchingProfileDto::userId).filter(Objects::nonNull).collect(Collectors.toSet());
-            Map<Long, String> statuses = connectionsService.getStatusesForMatching(currentUser, ids);
-
-            all = all.stream()
-                    .map(x -> new MatchingProfileDto(
-                            x.userId(),
-                            x.firstName(),
-                            x.lastName(),
-                            x.role(),
-                            x.headline(),
-                            x.country(),
-                            x.city(),
-                            x.profession(),
-                            x.faculty(),
-                            x.expertAreas(),
-                            x.availability(),
-                            x.experienceLevel(),
-                            x.openToProjects(),
-                            x.openToMentoring(),
-                            x.avatarUrl(),
-                            statuses.getOrDefault(x.userId(), "NONE")
-                    ))
-                    .collect(Collectors.toList());
+        List<MatchingProfileDto> items = new ArrayList<>(pageEntries.size());
+        for (MatchingIndex.Entry e : pageEntries) {
+            items.add(toDto(e, statuses.getOrDefault(e.userId(), "NONE"), mutual.getOrDefault(e.userId(), 0)));
         }
 
-        Comparator<MatchingProfileDto> cmp = comparator(sort);
-        if (!asc) cmp = cmp.reversed();
-        all.sort(cmp);
+        return new MatchingPageResponse(
+                items,
+                safePage,
+                safeSize,
+                total,
+                totalPages,
+                matchingIndex.facets(hits)
+        );
+    }
 
-        long total = all.size();
-        int totalPages = (int) Math.ceil(total / (double) safeSize);
-        int from = Math.min(safePage * safeSize, (int) total);
-        int to = Math.min(from + safeSize, (int) total);
-
-        List<MatchingProfileDto> items = all.subList(from, to);
-
-        return PageResponse.<MatchingProfileDto>builder()
-                .items(items)
-                .page(safePage)
-                .size(safeSize)
-                .totalElements(total)
-                .totalPages(totalPages)
-                .build();
+    /**
+     * Scores every candidate against the current user's profile and keeps the best page.
+     * Always best-first ({@code dir} is ignored); anonymous users fall back to name order.
+     */
+    private List<MatchingIndex.Entry> relevancePage(MatchingIndex.Entry meEntry, BitSet hits, int from, int size) {
+        MatchingIndex.Entry[] candidates = matchingIndex.snapshot(hits);
+        return RelevanceScorer.top(meEntry, candidates, from, size, true).stream()
+                .map(RelevanceScorer.Scored::entry)
+                .toList();
     }
 
     private static String norm(String s) {
         return s == null ? "" : s.trim();
     }
 
-    private static String joinName(String first, String last) {
-        return (norm(first) + " " + norm(last)).trim();
+    // numele enum-urilor lowercased, calculate o data (fara alocari in comparator)
+    private static final String[] AVAILABILITY_KEYS = lowerNames(Availability.values());
+    private static final String[] EXPERIENCE_LEVEL_KEYS = lowerNames(ExperienceLevel.values());
+
+    private static String[] lowerNames(Enum<?>[] values) {
+        String[] out = new String[values.length];
+        for (Enum<?> v : values) out[v.ordinal()] = v.name().toLowerCase(Locale.ROOT);
+        return out;
     }
 
-    private static MatchingProfileDto toDto(User u, Profile p, String status) {
-        List<String> areas = null;
-
-        if (p != null) {
-            if (p.getExpertise() != null && !p.getExpertise().isEmpty()) {
-                areas = p.getExpertise().stream()
-                        .map(e -> e == null ? null : e.getArea())
-                        .filter(Objects::nonNull)
-                        .filter(x -> !norm(x).isEmpty())
-                        .distinct()
-                        .collect(Collectors.toList());
-            } else if (p.getExpertAreas() != null) {
-                areas = p.getExpertAreas().stream()
-                        .filter(Objects::nonNull)
-                        .filter(x -> !norm(x).isEmpty())
-                        .distinct()
-                        .collect(Collectors.toList());
-            }
-        }
+    private static String key(String[] keys, Enum<?> e) {
+        return e == null ? "" : keys[e.ordinal()];
+    }
 
+    private static MatchingProfileDto toDto(MatchingIndex.Entry e, String status, int mutualCount) {
         return new MatchingProfileDto(
-                u.getId(),
-                u.getFirstName(),
-                u.getLastName(),
-                u.getRole() == null ? null : u.getRole().name(),
-                p == null ? null : p.getHeadline(),
-                p == null ? null : p.getCountry(),
-                p == null ? null : p.getCity(),
-                p == null ? null : p.getProfession(),
-                p == null ? null : p.getFaculty(),
-                areas,
-                p == null || p.getAvailability() == null ? null : p.getAvailability().name(),
-                p == null || p.getExperienceLevel() == null ? null : p.getExperienceLevel().name(),
-                p == null ? null : p.isOpenToProjects(),
-                p == null ? null : p.isOpenToMentoring(),
-                p == null ? null : p.getAvatarUrl(),
-                status
+                e.userId(),
+                e.firstName(),
+                e.lastName(),
+                e.role() == null ? null : e.role().name(),
+                e.headline(),
+                e.country(),
+                e.city(),
+                e.profession(),
+                e.faculty(),
+                e.expertAreas(),
+                e.availability() == null ? null : e.availability().name(),
+                e.experienceLevel() == null ? null : e.experienceLevel().name(),
+                e.openToProjects(),
+                e.openToMentoring(),
+                e.avatarUrl(),
+                status,
+                mutualCount
         );
     }
 
-    private static Comparator<MatchingProfileDto> comparator(SortBy sort) {
-        Function<MatchingProfileDto, String> nameKey =
-                x -> joinName(x.firstName(), x.lastName()).toLowerCase(Locale.ROOT);
-
-        return switch (sort) {
-            case EXPERTISE_AREA -> Comparator.<MatchingProfileDto, String>comparing(
-                    x -> {
-                        List<String> a = x.expertAreas() == null ? List.of() : x.expertAreas();
-                        return (a.isEmpty() ? "" : norm(a.get(0))).toLowerCase(Locale.ROOT);
-                    },
-                    Comparator.nullsLast(String::compareTo)
-            ).thenComparing(nameKey);
-
-            case AVAILABILITY -> Comparator.<MatchingProfileDto, String>comparing(
-                    x -> norm(x.availability()).toLowerCase(Locale.ROOT),
-                    Comparator.nullsLast(String::compareTo)
-            ).thenComparing(nameKey);
-
-            case OPEN_TO_PROJECTS -> Comparator.<MatchingProfileDto, Boolean>comparing(
-                    x -> Boolean.TRUE.equals(x.openToProjects())
-            ).reversed().thenComparing(nameKey);
-
-            case OPEN_TO_MENTORING -> Comparator.<MatchingProfileDto, Boolean>comparing(
-                    x -> Boolean.TRUE.equals(x.openToMentoring())
-            ).reversed().thenComparing(nameKey);
-
-            case EXPERIENCE_LEVEL -> Comparator.<MatchingProfileDto, String>comparing(
-                    x -> norm(x.experienceLevel()).toLowerCase(Locale.ROOT),
-                    Comparator.nullsLast(String::compareTo)
-            ).thenComparing(nameKey);
-
-            case NAME -> Comparator.comparing(nameKey);
+    /**
+     * Compares the keys precomputed on each {@link MatchingIndex.Entry};
+     * userId is the final tie-break so paging is deterministic.
+     */
+    private static Comparator<MatchingIndex.Entry> comparator(SortBy sort) {
+        Comparator<MatchingIndex.Entry> byName = Comparator.comparing(MatchingIndex.Entry::nameKey);
+
+        Comparator<MatchingIndex.Entry> cmp = switch (sort) {
+            case EXPERTISE_AREA -> Comparator.comparing(MatchingIndex.Entry::areaKey).thenComparing(byName);
+
+            case AVAILABILITY -> Comparator.<MatchingIndex.Entry, String>comparing(
+                    x -> key(AVAILABILITY_KEYS, x.availability())
+            ).thenComparing(byName);
+
+            case OPEN_TO_PROJECTS -> Comparator.<MatchingIndex.Entry, Boolean>comparing(
+                    MatchingIndex.Entry::openToProjects
+            ).reversed().thenComparing(byName);
+
+            case OPEN_TO_MENTORING -> Comparator.<MatchingIndex.Entry, Boolean>comparing(
+                    MatchingIndex.Entry::openToMentoring
+            ).reversed().thenComparing(byName);
+
+            case EXPERIENCE_LEVEL -> Comparator.<MatchingIndex.Entry, String>comparing(
+                    x -> key(EXPERIENCE_LEVEL_KEYS, x.experienceLevel())
+            ).thenComparing(byName);
+
+            // RELEVANCE nu ajunge aici (vezi relevancePage)
+            case NAME, RELEVANCE -> byName;
         };
+
+        return cmp.thenComparing(MatchingIndex.Entry::userId);
     }
 }
@@ -0,0 +1,571 @@
+package com.platforma.backend.matching;
+
+import com.platforma.backend.matching.dto.MatchingFacetsDto;
+import com.platforma.backend.profile.Availability;
+import com.platforma.backend.profile.ExperienceLevel;
+import com.platforma.backend.profile.Profile;
+import com.platforma.backend.profile.ProfileRepository;
+import com.platforma.backend.user.Role;
+import com.platforma.backend.user.User;
+import com.platforma.backend.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Read-optimized snapshot of every user + profile used by the matching page.
+ * Warmed once at startup, then kept up to date by ProfileService / registration,
+ * so listing profiles never has to go back to the database.
+ *
+ * Every user gets a dense ordinal; each facet value keeps a BitSet of ordinals,
+ * so a filter is an AND of bitsets instead of a chain of list copies.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatchingIndex {
+
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ordinal -> entry (null = removed); ordinalele nu se refolosesc pentru alt user
+    private final List<Entry> byOrdinal = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    private final Map<Availability, BitSet> byAvailability = new EnumMap<>(Availability.class);
+    private final Map<ExperienceLevel, BitSet> byExperienceLevel = new EnumMap<>(ExperienceLevel.class);
+    private final Map<Role, BitSet> byRole = new EnumMap<>(Role.class);
+    private final BitSet openToProjects = new BitSet();
+    private final BitSet openToMentoring = new BitSet();
+
+    // key = area lowercased; label = prima forma intalnita (pentru facets)
+    private final Map<String, BitSet> byArea = new HashMap<>();
+    private final Map<String, String> areaLabels = new HashMap<>();
+
+    // dictionar de termeni (arii, domenii, tara, oras) -> id int, pentru vectorii de relevanta
+    private final Map<String, Integer> termIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTermId = new AtomicInteger();
+
+    // useri modificati de la ultimul drainChanged() (pentru recomandarile precalculate)
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    // mutatii venite in timpul warm-up-ului, reaplicate peste snapshot-ul incarcat (ca in ConnectionGraph)
+    private final List<Runnable> pending = new ArrayList<>();
+    private boolean warming;
+
+    public record Entry(
+            Long userId,
+            String firstName,
+            String lastName,
+            Role role,
+
+            String headline,
+            String country,
+            String city,
+            String profession,
+            String faculty,
+
+            List<String> expertAreas,
+            Availability availability,
+            ExperienceLevel experienceLevel,
+            boolean openToProjects,
+            boolean openToMentoring,
+
+            String avatarUrl,
+
+            // chei de sortare/cautare calculate o singura data, la indexare
+            String nameKey,
+            String areaKey,
+
+            Signals signals
+    ) {
+
+        static Entry of(User u, Profile p, ToIntFunction<String> intern) {
+            List<String> areas = areasOf(p);
+            return new Entry(
+                    u.getId(),
+                    u.getFirstName(),
+                    u.getLastName(),
+                    u.getRole(),
+                    p == null ? null : p.getHeadline(),
+                    p == null ? null : p.getCountry(),
+                    p == null ? null : p.getCity(),
+                    p == null ? null : p.getProfession(),
+                    p == null ? null : p.getFaculty(),
+                    areas,
+                    p == null ? null : p.getAvailability(),
+                    p == null ? null : p.getExperienceLevel(),
+                    p != null && p.isOpenToProjects(),
+                    p != null && p.isOpenToMentoring(),
+                    p == null ? null : p.getAvatarUrl(),
+                    nameKeyOf(u),
+                    areas == null || areas.isEmpty() ? "" : normArea(areas.get(0)),
+                    Signals.of(p, areas, intern)
+            );
+        }
+
+        Entry withUser(User u) {
+            return new Entry(
+                    userId,
+                    u.getFirstName(),
+                    u.getLastName(),
+                    u.getRole(),
+                    headline,
+                    country,
+                    city,
+                    profession,
+                    faculty,
+                    expertAreas,
+                    availability,
+                    experienceLevel,
+                    openToProjects,
+                    openToMentoring,
+                    avatarUrl,
+                    nameKeyOf(u),
+                    areaKey,
+                    signals
+            );
+        }
+    }
+
+    /**
+     * Sparse profile vector used by relevance scoring: sorted interned ids
+     * for expertise areas and company domains, plus country / city ids (-1 = unknown).
+     */
+    public record Signals(int[] areaIds, int[] domainIds, int countryId, int cityId) {
+
+        static final Signals EMPTY = new Signals(new int[0], new int[0], -1, -1);
+
+        static Signals of(Profile p, List<String> areas, ToIntFunction<String> intern) {
+            if (p == null) return EMPTY;
+
+            int[] areaIds = ids(areas, "area:", intern);
+            int[] domainIds = ids(domainsOf(p), "domain:", intern);
+
+            String country = isBlank(p.getCountry()) ? null : p.getCountry().trim().toLowerCase(Locale.ROOT);
+            String city = isBlank(p.getCity()) ? null : p.getCity().trim().toLowerCase(Locale.ROOT);
+
+            return new Signals(
+                    areaIds,
+                    domainIds,
+                    country == null ? -1 : intern.applyAsInt("country:" + country),
+                    city == null ? -1 : intern.applyAsInt("city:" + (country == null ? "" : country) + "|" + city)
+            );
+        }
+
+        private static int[] ids(Collection<String> values, String prefix, ToIntFunction<String> intern) {
+            if (values == null || values.isEmpty()) return new int[0];
+            return values.stream()
+                    .filter(v -> !isBlank(v))
+                    .mapToInt(v -> intern.applyAsInt(prefix + v.trim().toLowerCase(Locale.ROOT)))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    /**
+     * Filter values as received from the API (trimmed, empty = not set).
+     * Enum facets are matched case-insensitively; an unknown value matches nobody.
+     */
+    public record Filter(
+            Long excludeUserId,
+            String name,
+            String expertiseArea,
+            String availability,
+            String experienceLevel,
+            String role,
+            Boolean openToProjects,
+            Boolean openToMentoring
+    ) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        synchronized (pending) {
+            warming = true;
+        }
+
+        Map<Long, Profile> profiles = profileRepository.findAll().stream()
+                .filter(p -> p.getId() != null)
+                .collect(Collectors.toMap(Profile::getId, Function.identity()));
+
+        for (User u : userRepository.findAll()) {
+            // incarcarea initiala nu e o "modificare"
+            replace(u.getId(), Entry.of(u, profiles.get(u.getId()), this::intern), false);
+        }
+
+        // un put / remove comis in timpul incarcarii poate fi suprascris de randurile citite inainte
+        synchronized (pending) {
+            pending.forEach(Runnable::run);
+            pending.clear();
+            warming = false;
+        }
+    }
+
+    public void put(User user, Profile profile) {
+        if (user == null || user.getId() == null) return;
+        Entry e = Entry.of(user, profile, this::intern);
+        mutate(() -> replace(user.getId(), e, true));
+    }
+
+    // doar nume / rol s-au schimbat, pastram restul din snapshot
+    public void updateUser(User user) {
+        if (user == null || user.getId() == null) return;
+
+        mutate(() -> {
+            lock.writeLock().lock();
+            try {
+                Entry prev = current(user.getId());
+                replace(user.getId(), prev == null ? Entry.of(user, null, this::intern) : prev.withUser(user), true);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long userId) {
+        if (userId == null) return;
+        mutate(() -> unlist(userId));
+    }
+
+    public Entry get(Long userId) {
+        if (userId == null) return null;
+
+        lock.readLock().lock();
+        try {
+            return current(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet all() {
+        lock.readLock().lock();
+        try {
+            return (BitSet) live.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns and clears the ids of users added / updated / removed since the previous call.
+     */
+    public Set<Long> drainChanged() {
+        Set<Long> out = new HashSet<>();
+        for (Iterator<Long> it = changed.iterator(); it.hasNext(); ) {
+            out.add(it.next());
+            it.remove();
+        }
+        return out;
+    }
+
+    /**
+     * Puts back ids returned by {@link #drainChanged()} whose recomputation failed.
+     */
+    public void markChanged(Collection<Long> userIds) {
+        changed.addAll(userIds);
+    }
+
+    /**
+     * Resolves {@code userIds} in the given order, keeping only those inside {@code hits}.
+     */
+    public List<Entry> resolve(List<Long> userIds, BitSet hits) {
+        lock.readLock().lock();
+        try {
+            List<Entry> out = new ArrayList<>(userIds.size());
+            for (Long id : userIds) {
+                Integer ord = ordinals.get(id);
+                if (ord != null && hits.get(ord) && byOrdinal.get(ord) != null) out.add(byOrdinal.get(ord));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet filter(Filter f) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = (BitSet) live.clone();
+
+            if (f.excludeUserId() != null) {
+                Integer me = ordinals.get(f.excludeUserId());
+                if (me != null) hits.clear(me);
+            }
+
+            if (!isBlank(f.availability())) {
+                hits.and(facet(byAvailability, Availability.class, f.availability()));
+            }
+            if (!isBlank(f.experienceLevel())) {
+                hits.and(facet(byExperienceLevel, ExperienceLevel.class, f.experienceLevel()));
+            }
+            if (!isBlank(f.role())) {
+                hits.and(facet(byRole, Role.class, f.role()));
+            }
+
+            if (f.openToProjects() != null) {
+                if (f.openToProjects()) hits.and(openToProjects);
+                else hits.andNot(openToProjects);
+            }
+            if (f.openToMentoring() != null) {
+                if (f.openToMentoring()) hits.and(openToMentoring);
+                else hits.andNot(openToMentoring);
+            }
+
+            if (!isBlank(f.expertiseArea())) {
+                // filtrul e "contains", deci facem OR peste toate ariile care se potrivesc
+                String el = f.expertiseArea().trim().toLowerCase(Locale.ROOT);
+                BitSet anyArea = new BitSet();
+                byArea.forEach((key, bits) -> {
+                    if (key.contains(el)) anyArea.or(bits);
+                });
+                hits.and(anyArea);
+            }
+
+            if (!isBlank(f.name())) {
+                String ql = f.name().trim().toLowerCase(Locale.ROOT);
+                for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                    if (!byOrdinal.get(i).nameKey().contains(ql)) {
+                        hits.clear(i);
+                    }
+                }
+            }
+
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void forEach(BitSet hits, Consumer<Entry> action) {
+        lock.readLock().lock();
+        try {
+            for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                Entry e = i < byOrdinal.size() ? byOrdinal.get(i) : null;
+                if (e != null) action.accept(e);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the entries behind {@code hits} into an array, so callers can
+     * work on them (e.g. in parallel) without holding the index lock.
+     */
+    public Entry[] snapshot(BitSet hits) {
+        lock.readLock().lock();
+        try {
+            Entry[] out = new Entry[hits.cardinality()];
+            int n = 0;
+            for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                Entry e = i < byOrdinal.size() ? byOrdinal.get(i) : null;
+                if (e != null) out[n++] = e;
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per-facet counts inside the given result set ("Mentoring (42)").
+     */
+    public MatchingFacetsDto facets(BitSet hits) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> areas = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            byArea.forEach((key, bits) -> {
+                int n = countIn(bits, hits);
+                if (n > 0) areas.merge(areaLabels.get(key), n, Integer::sum);
+            });
+
+            return new MatchingFacetsDto(
+                    counts(byAvailability, Availability.values(), hits),
+                    counts(byExperienceLevel, ExperienceLevel.values(), hits),
+                    counts(byRole, Role.values(), hits),
+                    countIn(openToProjects, hits),
+                    countIn(openToMentoring, hits),
+                    areas
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void mutate(Runnable mutation) {
+        synchronized (pending) {
+            if (warming) pending.add(mutation);
+        }
+        mutation.run();
+    }
+
+    private void unlist(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer ord = ordinals.get(userId);
+            if (ord == null) return;
+
+            Entry prev = byOrdinal.get(ord);
+            if (prev != null) unindex(ord, prev);
+            byOrdinal.set(ord, null);
+            live.clear(ord);
+            changed.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long userId, Entry e, boolean track) {
+        lock.writeLock().lock();
+        try {
+            int ord = ordinals.computeIfAbsent(userId, k -> {
+                byOrdinal.add(null);
+                return byOrdinal.size() - 1;
+            });
+
+            Entry prev = byOrdinal.get(ord);
+            if (prev != null) unindex(ord, prev);
+
+            byOrdinal.set(ord, e);
+            index(ord, e);
+            live.set(ord);
+            if (track) changed.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int intern(String term) {
+        return termIds.computeIfAbsent(term, k -> nextTermId.getAndIncrement());
+    }
+
+    private Entry current(Long userId) {
+        Integer ord = ordinals.get(userId);
+        return ord == null ? null : byOrdinal.get(ord);
+    }
+
+    private void index(int ord, Entry e) {
+        if (e.availability() != null) byAvailability.computeIfAbsent(e.availability(), k -> new BitSet()).set(ord);
+        if (e.experienceLevel() != null) byExperienceLevel.computeIfAbsent(e.experienceLevel(), k -> new BitSet()).set(ord);
+        if (e.role() != null) byRole.computeIfAbsent(e.role(), k -> new BitSet()).set(ord);
+        if (e.openToProjects()) openToProjects.set(ord);
+        if (e.openToMentoring()) openToMentoring.set(ord);
+
+        if (e.expertAreas() != null) {
+            for (String a : e.expertAreas()) {
+                String key = normArea(a);
+                byArea.computeIfAbsent(key, k -> new BitSet()).set(ord);
+                areaLabels.putIfAbsent(key, a.trim());
+            }
+        }
+    }
+
+    private void unindex(int ord, Entry e) {
+        if (e.availability() != null) clear(byAvailability, e.availability(), ord);
+        if (e.experienceLevel() != null) clear(byExperienceLevel, e.experienceLevel(), ord);
+        if (e.role() != null) clear(byRole, e.role(), ord);
+        openToProjects.clear(ord);
+        openToMentoring.clear(ord);
+
+        if (e.expertAreas() != null) {
+            for (String a : e.expertAreas()) {
+                String key = normArea(a);
+                clear(byArea, key, ord);
+                if (!byArea.containsKey(key)) areaLabels.remove(key);
+            }
+        }
+    }
+
+    private static <K> void clear(Map<K, BitSet> facet, K key, int ord) {
+        BitSet bits = facet.get(key);
+        if (bits == null) return;
+        bits.clear(ord);
+        if (bits.isEmpty()) facet.remove(key);
+    }
+
+    private static <E extends Enum<E>> BitSet facet(Map<E, BitSet> facet, Class<E> type, String value) {
+        for (E c : type.getEnumConstants()) {
+            if (c.name().equalsIgnoreCase(value.trim())) {
+                BitSet bits = facet.get(c);
+                return bits == null ? new BitSet() : bits;
+            }
+        }
+        return new BitSet();
+    }
+
+    private static <E extends Enum<E>> Map<String, Integer> counts(Map<E, BitSet> facet, E[] values, BitSet hits) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (E v : values) {
+            BitSet bits = facet.get(v);
+            out.put(v.name(), bits == null ? 0 : countIn(bits, hits));
+        }
+        return out;
+    }
+
+    private static int countIn(BitSet bits, BitSet hits) {
+        BitSet tmp = (BitSet) bits.clone();
+        tmp.and(hits);
+        return tmp.cardinality();
+    }
+
+    private static List<String> areasOf(Profile p) {
+        if (p == null) return null;
+
+        List<String> source = null;
+        if (p.getExpertise() != null && !p.getExpertise().isEmpty()) {
+            source = p.getExpertise().stream()
+                    .map(e -> e == null ? null : e.getArea())
+                    .toList();
+        } else if (p.getExpertAreas() != null) {
+            source = p.getExpertAreas();
+        }
+        if (source == null) return null;
+
+        return source.stream()
+                .filter(Objects::nonNull)
+                .filter(x -> !x.trim().isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static Set<String> domainsOf(Profile p) {
+        Set<String> out = new LinkedHashSet<>();
+        if (p.getCompanyDomains() != null) out.addAll(p.getCompanyDomains());
+        if (p.getCompanies() != null) {
+            for (var c : p.getCompanies()) {
+                if (c != null && c.getDomains() != null) out.addAll(c.getDomains());
+            }
+        }
+        return out;
+    }
+
+    private static String normArea(String area) {
+        return area.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String nameKeyOf(User u) {
+        String first = u.getFirstName() == null ? "" : u.getFirstName().trim();
+        String last = u.getLastName() == null ? "" : u.getLastName().trim();
+        return (first + " " + last).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
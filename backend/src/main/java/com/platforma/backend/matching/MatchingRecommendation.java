@@ -0,0 +1,41 @@
+package com.platforma.backend.matching;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One row of a user's precomputed "recommended for me" list (rank 0 = best).
+ */
+@Entity
+@Table(
+        name = "matching_recommendations",
+        indexes = @Index(name = "idx_matching_rec_user_rank", columnList = "user_id, rank")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchingRecommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(nullable = false)
+    private int rank;
+
+    @Column(nullable = false)
+    private int score;
+
+    @Column(nullable = false)
+    private Instant computedAt;
+}
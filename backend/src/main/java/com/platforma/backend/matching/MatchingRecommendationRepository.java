@@ -0,0 +1,24 @@
+package com.platforma.backend.matching;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MatchingRecommendationRepository extends JpaRepository<MatchingRecommendation, Long> {
+
+    List<MatchingRecommendation> findByUserIdOrderByRankAsc(Long userId);
+
+    @Query("""
+        select new com.platforma.backend.matching.StoredRecommendationRow(r.userId, r.candidateId, r.score)
+        from MatchingRecommendation r
+        order by r.userId asc, r.rank asc
+    """)
+    List<StoredRecommendationRow> findAllStored();
+
+    @Modifying
+    @Query("delete from MatchingRecommendation r where r.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,224 @@
+package com.platforma.backend.matching;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materializes the top-N RELEVANCE list of every user into matching_recommendations.
+ *
+ * A nightly job rebuilds everything; between runs a short fixed-delay job only recomputes
+ * users whose own entry changed, or whose stored list a changed candidate could enter or leave.
+ * Changes are picked up from {@link MatchingIndex#drainChanged()}, which ProfileService feeds.
+ * The two jobs never overlap: a refresh that finds a rebuild running is skipped, and the ids a
+ * failed job drained are handed back to the index for the next run.
+ */
+@Service
+@RequiredArgsConstructor
+public class MatchingRecommendationService {
+
+    private final MatchingIndex matchingIndex;
+    private final MatchingRecommendationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${matching.recommendations.size:50}")
+    private int topN;
+
+    @Value("${matching.recommendations.batch-size:200}")
+    private int batchSize;
+
+    // listele calculate de procesul curent: ids in ordinea rank-ului + scorul minim din lista
+    private final Map<Long, Stored> lists = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    // rebuildAll si refreshChanged ruleaza pe scheduler-ul comun (mai multe thread-uri)
+    private final ReentrantLock jobLock = new ReentrantLock();
+
+    private record Stored(long[] candidateIds, int minScore) {
+
+        boolean contains(long id) {
+            for (long c : candidateIds) if (c == id) return true;
+            return false;
+        }
+    }
+
+    /**
+     * Stored list for the user (best first), or null if nothing was computed yet.
+     */
+    public List<Long> recommendedFor(Long userId) {
+        if (userId == null) return null;
+
+        Stored st = lists.get(userId);
+        if (st != null) {
+            List<Long> out = new ArrayList<>(st.candidateIds().length);
+            for (long id : st.candidateIds()) out.add(id);
+            return out;
+        }
+
+        List<MatchingRecommendation> rows = repository.findByUserIdOrderByRankAsc(userId);
+        if (rows.isEmpty() && !built) return null;
+        return rows.stream().map(MatchingRecommendation::getCandidateId).toList();
+    }
+
+    @Scheduled(cron = "${matching.recommendations.full-cron:0 0 3 * * *}")
+    public void rebuildAll() {
+        jobLock.lock();
+        try {
+            rebuild();
+        } finally {
+            jobLock.unlock();
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${matching.recommendations.refresh-ms:300000}",
+            initialDelayString = "${matching.recommendations.initial-delay-ms:60000}"
+    )
+    public void refreshChanged() {
+        // rebuild in curs: modificarile raman in index pentru urmatoarea rulare
+        if (!jobLock.tryLock()) return;
+        try {
+            if (!built && !loadStored()) {
+                // tabel gol (prima pornire): nu avem nimic de actualizat incremental
+                rebuild();
+                return;
+            }
+            refresh();
+        } finally {
+            jobLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        // tot ce s-a schimbat pana acum intra oricum in rebuild
+        Set<Long> drained = matchingIndex.drainChanged();
+        try {
+            MatchingIndex.Entry[] everyone = matchingIndex.snapshot(matchingIndex.all());
+            Set<Long> alive = new HashSet<>();
+            for (MatchingIndex.Entry e : everyone) alive.add(e.userId());
+
+            List<Long> ids = new ArrayList<>(alive);
+            for (Long stale : lists.keySet()) {
+                if (!alive.contains(stale)) ids.add(stale);
+            }
+            recompute(ids, everyone);
+            built = true;
+        } catch (RuntimeException e) {
+            matchingIndex.markChanged(drained);
+            throw e;
+        }
+    }
+
+    private void refresh() {
+        Set<Long> changed = matchingIndex.drainChanged();
+        if (changed.isEmpty()) return;
+
+        try {
+            MatchingIndex.Entry[] everyone = matchingIndex.snapshot(matchingIndex.all());
+            Set<Long> affected = new HashSet<>(changed);
+
+            for (Long id : changed) {
+                MatchingIndex.Entry x = matchingIndex.get(id);
+
+                for (MatchingIndex.Entry u : everyone) {
+                    if (u.userId().equals(id) || affected.contains(u.userId())) continue;
+
+                    Stored st = lists.get(u.userId());
+                    if (st == null || st.contains(id)) {
+                        affected.add(u.userId());
+                    } else if (x != null) {
+                        int s = RelevanceScorer.score(u, x);
+                        if (s > 0 && (st.candidateIds().length < topN || s >= st.minScore())) {
+                            affected.add(u.userId());
+                        }
+                    }
+                }
+            }
+
+            recompute(new ArrayList<>(affected), everyone);
+        } catch (RuntimeException e) {
+            matchingIndex.markChanged(changed);
+            throw e;
+        }
+    }
+
+    /**
+     * Reloads the lists persisted by a previous process, so a restart resumes incremental
+     * refreshes instead of recomputing everyone. Returns false if the table is empty.
+     */
+    private boolean loadStored() {
+        List<StoredRecommendationRow> rows = repository.findAllStored();
+        if (rows.isEmpty()) return false;
+
+        int from = 0;
+        while (from < rows.size()) {
+            Long uid = rows.get(from).userId();
+            int to = from;
+            while (to < rows.size() && rows.get(to).userId().equals(uid)) to++;
+
+            long[] ids = new long[to - from];
+            for (int i = from; i < to; i++) ids[i - from] = rows.get(i).candidateId();
+            // listele concurente calculate deja de acest proces sunt mai noi
+            lists.putIfAbsent(uid, new Stored(ids, rows.get(to - 1).score()));
+            from = to;
+        }
+
+        built = true;
+        return true;
+    }
+
+    private void recompute(List<Long> userIds, MatchingIndex.Entry[] everyone) {
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            List<Long> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+
+            // scorarea e CPU-bound: paralel pe useri, secvential pe candidati
+            Map<Long, List<RelevanceScorer.Scored>> computed = new ConcurrentHashMap<>();
+            batch.parallelStream().forEach(uid -> {
+                MatchingIndex.Entry me = matchingIndex.get(uid);
+                computed.put(uid, me == null
+                        ? List.of()
+                        : RelevanceScorer.top(me, everyone, 0, topN, false).stream()
+                                .filter(s -> s.score() > 0)
+                                .toList());
+            });
+
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (Long uid : batch) {
+                    repository.deleteByUserId(uid);
+
+                    List<RelevanceScorer.Scored> top = computed.get(uid);
+                    List<MatchingRecommendation> rows = new ArrayList<>(top.size());
+                    for (int i = 0; i < top.size(); i++) {
+                        rows.add(MatchingRecommendation.builder()
+                                .userId(uid)
+                                .candidateId(top.get(i).entry().userId())
+                                .rank(i)
+                                .score(top.get(i).score())
+                                .computedAt(now)
+                                .build());
+                    }
+                    repository.saveAll(rows);
+                }
+            });
+
+            for (Long uid : batch) {
+                List<RelevanceScorer.Scored> top = computed.get(uid);
+                if (matchingIndex.get(uid) == null) {
+                    lists.remove(uid);
+                    continue;
+                }
+                long[] ids = top.stream().mapToLong(s -> s.entry().userId()).toArray();
+                int min = top.isEmpty() ? 0 : top.get(top.size() - 1).score();
+                lists.put(uid, new Stored(ids, min));
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.platforma.backend.matching;
+
+import com.platforma.backend.user.Role;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Scores a candidate against the current user for sort=RELEVANCE.
+ * Works only on the precomputed {@link MatchingIndex.Signals}, so one score
+ * is a couple of sorted-array intersections and a few int compares.
+ */
+final class RelevanceScorer {
+
+    static final int SHARED_AREA = 3;
+    static final int SHARED_DOMAIN = 2;
+    static final int SAME_CITY = 2;
+    static final int SAME_COUNTRY = 1;
+    static final int COMPLEMENTARY_ROLE = 2;
+    static final int OPEN_TO_FIT = 1;
+
+    // cine cu cine se potriveste (simetric)
+    private static final Map<Role, Set<Role>> COMPLEMENTS = new EnumMap<>(Role.class);
+
+    static {
+        link(Role.ENTREPRENEURS, Role.INVESTORS);
+        link(Role.ENTREPRENEURS, Role.MENTORS);
+        link(Role.ENTREPRENEURS, Role.MANUFACTURERS);
+        link(Role.CITIZEN, Role.MENTORS);
+        link(Role.INVESTORS, Role.MANUFACTURERS);
+    }
+
+    // sub pragul asta scorarea secventiala e mai ieftina decat fork/join
+    private static final int PARALLEL_SCORING_THRESHOLD = 2048;
+
+    record Scored(MatchingIndex.Entry entry, int score) {}
+
+    static final Comparator<Scored> BEST_FIRST = Comparator.comparingInt(Scored::score).reversed()
+            .thenComparing(x -> x.entry().nameKey())
+            .thenComparing(x -> x.entry().userId());
+
+    private RelevanceScorer() {
+    }
+
+    /**
+     * Scores all candidates against {@code me} (skipping {@code me} itself) and returns
+     * the best {@code limit} after {@code skip}. A null {@code me} scores everyone 0,
+     * which degrades to name order.
+     */
+    static List<Scored> top(MatchingIndex.Entry me, MatchingIndex.Entry[] candidates, int skip, int limit, boolean parallel) {
+        IntStream range = IntStream.range(0, candidates.length);
+        if (parallel && candidates.length >= PARALLEL_SCORING_THRESHOLD) range = range.parallel();
+
+        Long meId = me == null ? null : me.userId();
+        Scored[] scored = range
+                .filter(i -> meId == null || !meId.equals(candidates[i].userId()))
+                .mapToObj(i -> new Scored(candidates[i], me == null ? 0 : score(me, candidates[i])))
+                .toArray(Scored[]::new);
+
+        TopK<Scored> top = new TopK<>(BEST_FIRST, skip, limit);
+        for (Scored s : scored) top.offer(s);
+        return top.page();
+    }
+
+    static int score(MatchingIndex.Entry me, MatchingIndex.Entry other) {
+        MatchingIndex.Signals a = me.signals();
+        MatchingIndex.Signals b = other.signals();
+
+        int score = SHARED_AREA * overlap(a.areaIds(), b.areaIds())
+                + SHARED_DOMAIN * overlap(a.domainIds(), b.domainIds());
+
+        if (a.cityId() >= 0 && a.cityId() == b.cityId()) score += SAME_CITY;
+        else if (a.countryId() >= 0 && a.countryId() == b.countryId()) score += SAME_COUNTRY;
+
+        if (me.role() != null && other.role() != null
+                && COMPLEMENTS.getOrDefault(me.role(), Set.of()).contains(other.role())) {
+            score += COMPLEMENTARY_ROLE;
+        }
+
+        if (me.openToProjects() && other.openToProjects()) score += OPEN_TO_FIT;
+        if (me.openToMentoring() && other.openToMentoring()) score += OPEN_TO_FIT;
+
+        return score;
+    }
+
+    // intersectie pe array-uri sortate
+    static int overlap(int[] a, int[] b) {
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                n++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static void link(Role x, Role y) {
+        COMPLEMENTS.computeIfAbsent(x, k -> EnumSet.noneOf(Role.class)).add(y);
+        COMPLEMENTS.computeIfAbsent(y, k -> EnumSet.noneOf(Role.class)).add(x);
+    }
+}
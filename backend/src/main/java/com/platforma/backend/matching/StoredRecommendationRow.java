@@ -0,0 +1,6 @@
+package com.platforma.backend.matching;
+
+/**
+ * Lightweight projection of matching_recommendations used to reload the stored lists at startup.
+ */
+public record StoredRecommendationRow(Long userId, Long candidateId, int score) {}
@@ -0,0 +1,43 @@
+package com.platforma.backend.matching;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded selection of the best {@code skip + limit} elements for one page.
+ * Keeps a max-heap of size k, so page p of size s costs O(n log k), k = (p+1)*s,
+ * instead of sorting the whole candidate set.
+ */
+final class TopK<T> {
+
+    private final Comparator<T> order;
+    private final int skip;
+    private final int k;
+    private final PriorityQueue<T> heap;
+
+    TopK(Comparator<T> order, int skip, int limit) {
+        this.order = order;
+        this.skip = skip;
+        this.k = skip + limit;
+        // varful heap-ului = cel mai "slab" element pastrat
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), order.reversed());
+    }
+
+    void offer(T item) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (order.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    List<T> page() {
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        if (skip >= sorted.size()) return List.of();
+        return sorted.subList(skip, sorted.size());
+    }
+}
@@ -0,0 +1,17 @@
+package com.platforma.backend.matching.dto;
+
+import java.util.Map;
+
+/**
+ * Counts per facet value inside the current result set,
+ * e.g. openToMentoring = 42 -> "Mentoring (42)" in the UI.
+ */
+public record MatchingFacetsDto(
+        Map<String, Integer> availability,
+        Map<String, Integer> experienceLevel,
+        Map<String, Integer> role,
+        int openToProjects,
+        int openToMentoring,
+        Map<String, Integer> expertAreas
+) {
+}
@@ -0,0 +1,14 @@
+package com.platforma.backend.matching.dto;
+
+import java.util.List;
+
+// aceeasi forma ca PageResponse + facets
+public record MatchingPageResponse(
+        List<MatchingProfileDto> items,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        MatchingFacetsDto facets
+) {
+}
@@ -23,7 +23,8 @@ public record MatchingProfileDto(
 
         String avatarUrl,
 
-        String connectionStatus // NONE | OUTGOING_PENDING | INCOMING_PENDING | CONNECTED
+        String connectionStatus, // NONE | OUTGOING_PENDING | INCOMING_PENDING | CONNECTED
+        int mutualCount
 
 ) {
 }
@@ -0,0 +1,169 @@
+package com.platforma.backend.messages;
+
+import com.platforma.backend.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Migration of attachments stored before the BlobStore existed (bytes in
+ * message_attachments.data, a Postgres large object or bytea). Runs before the web server
+ * starts (after Hibernate updated the schema), since downloads now only read the store.
+ *
+ * Copy step, on every start while the column exists: each row without a sha256 is written to
+ * the store and gets its sha256 / size only once the stored blob hashes back to the same value.
+ * The legacy bytes are kept.
+ *
+ * Cleanup step, only with {@code app.attachments.migration.drop-legacy-data=true}: each copied
+ * row is verified again (legacy bytes and stored blob both hash to its sha256) before its data is
+ * cleared and its large object unlinked; the column is dropped once no row holds data.
+ *
+ * PostgreSQL only (lo_get / lo_unlink); other databases are left untouched.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AttachmentBlobMigration implements InitializingBean {
+
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.attachments.migration.drop-legacy-data:false}")
+    private boolean dropLegacyData;
+
+    @Override
+    public void afterPropertiesSet() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) return;
+
+        List<String> type = jdbcTemplate.queryForList("""
+                select data_type from information_schema.columns
+                where table_schema = current_schema() and table_name = 'message_attachments' and column_name = 'data'
+                """, String.class);
+        if (type.isEmpty()) return;
+
+        boolean largeObject = "oid".equalsIgnoreCase(type.get(0));
+
+        // entitatea nu mai scrie coloana; ddl-auto=update nu scoate NOT NULL singur
+        jdbcTemplate.execute("alter table message_attachments alter column data drop not null");
+
+        List<Long> toCopy = jdbcTemplate.queryForList(
+                "select id from message_attachments where data is not null and sha256 is null order by id", Long.class);
+        int copied = forEachRow(toCopy, id -> copy(id, largeObject), "copy");
+        if (!toCopy.isEmpty()) log.info("Copied {} of {} legacy attachments to blob store", copied, toCopy.size());
+
+        if (!dropLegacyData) return;
+
+        List<Long> toClear = jdbcTemplate.queryForList(
+                "select id from message_attachments where data is not null and sha256 is not null order by id", Long.class);
+        int cleared = forEachRow(toClear, id -> clear(id, largeObject), "clear legacy data of");
+        if (!toClear.isEmpty()) log.info("Cleared legacy data of {} of {} attachments", cleared, toClear.size());
+
+        Integer left = jdbcTemplate.queryForObject(
+                "select count(*) from message_attachments where data is not null", Integer.class);
+        if (left != null && left == 0) {
+            jdbcTemplate.execute("alter table message_attachments drop column data");
+            log.info("Dropped legacy column message_attachments.data");
+        } else {
+            log.warn("{} attachments still hold legacy data, keeping message_attachments.data", left);
+        }
+    }
+
+    private int forEachRow(List<Long> ids, Consumer<Long> step, String what) {
+        int done = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> step.accept(id));
+                done++;
+            } catch (Exception e) {
+                log.warn("Could not {} attachment {}", what, id, e);
+            }
+        }
+        return done;
+    }
+
+    private void copy(Long id, boolean largeObject) {
+        byte[] bytes = legacyBytes(id, largeObject);
+
+        BlobStore.BlobRef blob;
+        try {
+            blob = blobStore.put(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!storedIntact(blob.sha256(), bytes.length)) {
+            throw new IllegalStateException("Stored blob " + blob.sha256() + " does not match attachment " + id);
+        }
+
+        jdbcTemplate.update(
+                "update message_attachments set sha256 = ?, size_bytes = ? where id = ?",
+                blob.sha256(), blob.sizeBytes(), id);
+    }
+
+    private void clear(Long id, boolean largeObject) {
+        String sha256 = jdbcTemplate.queryForObject(
+                "select sha256 from message_attachments where id = ? for update", String.class, id);
+        byte[] bytes = legacyBytes(id, largeObject);
+
+        if (!sha256.equals(sha256(new ByteArrayInputStream(bytes))) || !storedIntact(sha256, bytes.length)) {
+            throw new IllegalStateException("Legacy data of attachment " + id + " does not match blob " + sha256);
+        }
+
+        Long oid = largeObject
+                ? jdbcTemplate.queryForObject("select data from message_attachments where id = ?", Long.class, id)
+                : null;
+        jdbcTemplate.update("update message_attachments set data = null where id = ?", id);
+
+        // altfel large object-ul ramane in pg_largeobject dupa ce coloana e golita
+        if (oid != null) jdbcTemplate.queryForObject("select lo_unlink(?::oid)", Integer.class, oid);
+    }
+
+    private byte[] legacyBytes(Long id, boolean largeObject) {
+        if (largeObject) {
+            Long oid = jdbcTemplate.queryForObject("select data from message_attachments where id = ? for update", Long.class, id);
+            return jdbcTemplate.queryForObject("select lo_get(?::oid)", byte[].class, oid);
+        }
+        return jdbcTemplate.queryForObject("select data from message_attachments where id = ? for update", byte[].class, id);
+    }
+
+    // recitim blob-ul scris: hash-ul si dimensiunea trebuie sa corespunda cheii
+    private boolean storedIntact(String sha256, long size) {
+        Resource stored = blobStore.get(sha256);
+        if (stored == null) return false;
+        try (InputStream in = stored.getInputStream()) {
+            return stored.contentLength() == size && sha256.equals(sha256(in));
+        } catch (IOException e) {
+            log.warn("Could not read back blob {}", sha256, e);
+            return false;
+        }
+    }
+
+    private static String sha256(InputStream in) {
+        try (DigestInputStream digestIn = new DigestInputStream(in, MessageDigest.getInstance("SHA-256"))) {
+            digestIn.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(digestIn.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.platforma.backend.messages;
+
+import com.platforma.backend.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes blobs no attachment row references. An upload stores its blob before the row
+ * commits, and a rolled-back or still-running transaction is invisible from here, so only
+ * blobs not stored for at least {@code app.blobs.sweep-min-age-ms} are considered; storing
+ * identical content again resets that age.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttachmentBlobSweeper {
+
+    private final BlobStore blobStore;
+    private final MessageAttachmentRepository attachmentRepository;
+
+    @Value("${app.blobs.sweep-min-age-ms:86400000}")
+    private long minAgeMs;
+
+    @Scheduled(cron = "${app.blobs.sweep-cron:0 0 4 * * *}")
+    public void sweep() {
+        Instant cutoff = Instant.now().minusMillis(minAgeMs);
+        AtomicInteger deleted = new AtomicInteger();
+
+        try {
+            blobStore.forEachOlderThan(cutoff, sha256 -> {
+                if (attachmentRepository.existsBySha256(sha256)) return;
+                try {
+                    if (blobStore.deleteIfOlderThan(sha256, cutoff)) deleted.incrementAndGet();
+                } catch (IOException e) {
+                    log.warn("Could not delete orphan blob {}", sha256, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Blob sweep stopped early", e);
+        }
+
+        if (deleted.get() > 0) log.info("Deleted {} orphan blobs", deleted.get());
+    }
+}
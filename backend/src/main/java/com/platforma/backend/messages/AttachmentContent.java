@@ -0,0 +1,14 @@
+package com.platforma.backend.messages;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * What a download needs: the readable body plus the metadata for headers.
+ * sha256 is the blob store key of the body, also used as the download ETag.
+ */
+public record AttachmentContent(
+        Resource body,
+        String sha256,
+        String mimeType,
+        String fileName
+) {}
@@ -0,0 +1,10 @@
+package com.platforma.backend.messages;
+
+// metadata fara coloana data (@Lob), pentru construit MessageDto in batch
+public record AttachmentRow(
+        Long messageId,
+        Long id,
+        String originalName,
+        String mimeType,
+        Long sizeBytes
+) {}
@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "conversations")
+@Table(
+        name = "conversations",
+        indexes = @Index(name = "idx_conversations_updated_at", columnList = "updated_at")
+)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Conversation {
 
@@ -17,6 +20,14 @@ public class Conversation {
     private Instant createdAt;
     private Instant updatedAt;
 
+    // read model pentru inbox, actualizat la fiecare mesaj trimis
+    private Long lastMessageId;
+
+    @Column(length = 200)
+    private String lastMessagePreview;
+
+    private Instant lastMessageAt;
+
     @PrePersist
     void onCreate() {
         Instant now = Instant.now();
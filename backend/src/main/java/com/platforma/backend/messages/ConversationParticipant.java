@@ -9,7 +9,11 @@ import java.time.Instant;
 @Entity
 @Table(
         name = "conversation_participants",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"conversation_id", "user_id"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"conversation_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_conv_participants_user", columnList = "user_id, deleted_at"),
+                @Index(name = "idx_conv_participants_other_user", columnList = "other_user_id")
+        }
 )
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ConversationParticipant {
@@ -30,4 +34,12 @@ public class ConversationParticipant {
 
     // simplu pentru MVP: ultimul mesaj citit (id). Poți face și "readAt" dacă preferi.
     private Long lastReadMessageId;
+
+    // read model pentru inbox: datele celuilalt participant, ca lista sa nu mai faca join-uri per rand
+    private Long otherUserId;
+    private String otherName;
+    private String otherRole;
+
+    @Column(length = 500)
+    private String otherAvatarUrl;
 }
@@ -1,8 +1,10 @@
 package com.platforma.backend.messages;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,14 +14,50 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
 
     @Query("""
         select cp from ConversationParticipant cp
+        join fetch cp.conversation c
         where cp.user.id = :userId and cp.deletedAt is null
-        order by cp.conversation.updatedAt desc
+        order by c.updatedAt desc
     """)
     List<ConversationParticipant> listVisibleForUser(Long userId);
 
+    @Query("""
+        select cp from ConversationParticipant cp
+        join fetch cp.user
+        where cp.conversation.id = :conversationId
+    """)
+    List<ConversationParticipant> findAllInConversation(Long conversationId);
+
+    @Query("""
+        select cp from ConversationParticipant cp
+        join fetch cp.user
+        where cp.conversation.id in :conversationIds
+    """)
+    List<ConversationParticipant> findAllInConversations(Collection<Long> conversationIds);
+
     @Query("""
         select cp from ConversationParticipant cp
         where cp.conversation.id = :conversationId and cp.user.id <> :meId
     """)
     Optional<ConversationParticipant> findOtherParticipant(Long conversationId, Long meId);
+
+    // lipseste snapshot-ul celuilalt participant sau cel al ultimului mesaj
+    @Query("""
+        select c.id from Conversation c
+        where exists (
+            select cp.id from ConversationParticipant cp
+            where cp.conversation = c and cp.otherUserId is null
+        )
+        or (c.lastMessageId is null and exists (
+            select m.id from Message m where m.conversation = c
+        ))
+    """)
+    List<Long> findConversationIdsWithoutSnapshot();
+
+    @Modifying
+    @Query("""
+        update ConversationParticipant cp
+        set cp.otherName = :name, cp.otherRole = :role, cp.otherAvatarUrl = :avatarUrl
+        where cp.otherUserId = :userId
+    """)
+    int updateOtherSnapshot(Long userId, String name, String role, String avatarUrl);
 }
@@ -1,8 +1,10 @@
 package com.platforma.backend.messages;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
@@ -19,4 +21,14 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
         )
     """)
     Optional<Conversation> findDirectBetween(Long userA, Long userB);
+
+    // update in bulk: nu trece prin @PreUpdate, deci nu muta conversatia in capul inbox-ului;
+    // nu suprascrie un mesaj mai nou scris intre timp de sendMultipart
+    @Modifying
+    @Query("""
+        update Conversation c
+        set c.lastMessageId = :messageId, c.lastMessagePreview = :preview, c.lastMessageAt = :at
+        where c.id = :conversationId and (c.lastMessageId is null or c.lastMessageId < :messageId)
+    """)
+    int updateLastMessage(Long conversationId, Long messageId, String preview, Instant at);
 }
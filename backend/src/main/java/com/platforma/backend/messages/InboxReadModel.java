@@ -0,0 +1,126 @@
+package com.platforma.backend.messages;
+
+import com.platforma.backend.profile.Profile;
+import com.platforma.backend.profile.ProfileRepository;
+import com.platforma.backend.user.User;
+import com.platforma.backend.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the inbox read model in sync: the "other participant" columns of conversation_participants
+ * are filled when a conversation is created and rewritten when a user changes avatar or role.
+ * Conversations created before the read model get both those columns and the last-message
+ * columns of conversations backfilled once at startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class InboxReadModel {
+
+    private final ConversationParticipantRepository participantRepository;
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${messaging.inbox.backfill-batch-size:200}")
+    private int batchSize;
+
+    private static final int PREVIEW_LENGTH = 200;
+
+    public void refresh(List<ConversationParticipant> participants) {
+        fillOther(participants, profilesOf(participants));
+        participantRepository.saveAll(participants);
+    }
+
+    /**
+     * Rewrites the snapshot of {@code userId} on every inbox row that shows them.
+     */
+    @Transactional
+    public void refreshUser(Long userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) return;
+        Profile profile = profileRepository.findById(userId).orElse(null);
+
+        participantRepository.updateOtherSnapshot(
+                userId,
+                displayName(user),
+                user.getRole() == null ? null : user.getRole().name(),
+                profile == null ? null : profile.getAvatarUrl()
+        );
+    }
+
+    // conversatii create inainte de read model: completate o singura data, in batch-uri
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> conversationIds = participantRepository.findConversationIdsWithoutSnapshot();
+
+        for (int from = 0; from < conversationIds.size(); from += batchSize) {
+            List<Long> batch = conversationIds.subList(from, Math.min(from + batchSize, conversationIds.size()));
+            transactionTemplate.executeWithoutResult(tx -> backfillBatch(batch));
+        }
+    }
+
+    /**
+     * Preview stored on the conversation for the inbox list.
+     */
+    static String preview(String text) {
+        if (text == null) return "";
+        return text.length() <= PREVIEW_LENGTH ? text : text.substring(0, PREVIEW_LENGTH);
+    }
+
+    // 3 query-uri pe batch (participanti, profile, ultimele mesaje) + update-urile
+    private void backfillBatch(List<Long> conversationIds) {
+        List<ConversationParticipant> participants = participantRepository.findAllInConversations(conversationIds);
+        Map<Long, Profile> profiles = profilesOf(participants);
+        participants.stream()
+                .collect(Collectors.groupingBy(cp -> cp.getConversation().getId()))
+                .values()
+                .forEach(cps -> fillOther(cps, profiles));
+        participantRepository.saveAll(participants);
+
+        for (Message m : messageRepository.findLatestIn(conversationIds)) {
+            conversationRepository.updateLastMessage(
+                    m.getConversation().getId(), m.getId(), preview(m.getContent()), m.getCreatedAt());
+        }
+    }
+
+    private void fillOther(List<ConversationParticipant> participants, Map<Long, Profile> profiles) {
+        for (var cp : participants) {
+            var otherCp = participants.stream()
+                    .filter(x -> !x.getUser().getId().equals(cp.getUser().getId()))
+                    .findFirst()
+                    .orElse(null);
+            if (otherCp == null) continue;
+
+            User other = otherCp.getUser();
+            var otherProfile = profiles.get(other.getId());
+
+            cp.setOtherUserId(other.getId());
+            cp.setOtherName(displayName(other));
+            cp.setOtherRole(other.getRole() == null ? null : other.getRole().name());
+            cp.setOtherAvatarUrl(otherProfile == null ? null : otherProfile.getAvatarUrl());
+        }
+    }
+
+    private Map<Long, Profile> profilesOf(List<ConversationParticipant> participants) {
+        List<Long> userIds = participants.stream().map(cp -> cp.getUser().getId()).distinct().toList();
+        return profileRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(Profile::getId, Function.identity()));
+    }
+
+    private static String displayName(User u) {
+        return u.getFirstName() + " " + u.getLastName();
+    }
+}
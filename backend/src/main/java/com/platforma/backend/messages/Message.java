@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "messages")
+@Table(
+        name = "messages",
+        indexes = @Index(name = "idx_messages_conversation_id", columnList = "conversation_id, id")
+)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Message {
 
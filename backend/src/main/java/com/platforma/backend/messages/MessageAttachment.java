@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "message_attachments")
+@Table(
+        name = "message_attachments",
+        indexes = @Index(name = "idx_message_attachments_sha256", columnList = "sha256")
+)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class MessageAttachment {
 
@@ -25,8 +28,7 @@ public class MessageAttachment {
     @Column(nullable = false)
     private Long sizeBytes;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(nullable = false)
-    private byte[] data;
+    // cheia din BlobStore (continutul nu mai sta in tabel)
+    @Column(length = 64)
+    private String sha256;
 }
@@ -1,9 +1,20 @@
 package com.platforma.backend.messages;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageAttachmentRepository extends JpaRepository<MessageAttachment, Long> {
-    List<MessageAttachment> findByMessageId(Long messageId);
+
+    @Query("""
+        select new com.platforma.backend.messages.AttachmentRow(a.message.id, a.id, a.originalName, a.mimeType, a.sizeBytes)
+        from MessageAttachment a
+        where a.message.id in :messageIds
+        order by a.id
+    """)
+    List<AttachmentRow> findMetaByMessageIds(Collection<Long> messageIds);
+
+    boolean existsBySha256(String sha256);
 }
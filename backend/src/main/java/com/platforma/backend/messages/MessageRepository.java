@@ -4,6 +4,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -14,4 +15,31 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
         order by m.id desc
     """)
     List<Message> latest(Long conversationId, Pageable pageable);
+
+    // keyset: mesaje mai vechi decat cursorul (scroll inapoi)
+    @Query("""
+        select m from Message m
+        where m.conversation.id = :conversationId and m.id < :beforeId
+        order by m.id desc
+    """)
+    List<Message> before(Long conversationId, Long beforeId, Pageable pageable);
+
+    // keyset: mesaje noi dupa cursor (reconectare), cele mai vechi primele ca sa nu ramana goluri
+    @Query("""
+        select m from Message m
+        where m.conversation.id = :conversationId and m.id > :afterId
+        order by m.id asc
+    """)
+    List<Message> after(Long conversationId, Long afterId, Pageable pageable);
+
+    // ultimul mesaj din fiecare conversatie, pentru backfill-ul inbox-ului
+    @Query("""
+        select m from Message m
+        where m.id in (
+            select max(m2.id) from Message m2
+            where m2.conversation.id in :conversationIds
+            group by m2.conversation.id
+        )
+    """)
+    List<Message> findLatestIn(Collection<Long> conversationIds);
 }
@@ -1,10 +1,13 @@
 package com.platforma.backend.messages.dto;
 
+import java.time.Instant;
+
 public record ConversationListItemDto(
         Long conversationId,
         Long otherUserId,
         String otherName,
         String otherRole,
         String otherAvatarUrl,
-        String lastMessagePreview
+        String lastMessagePreview,
+        Instant lastMessageAt
 ) {}
@@ -2,15 +2,18 @@ package com.platforma.backend.messages;
 
 import com.platforma.backend.messages.dto.ConversationListItemDto;
 import com.platforma.backend.messages.dto.MessageDto;
+import com.platforma.backend.storage.BlobDownload;
 import com.platforma.backend.user.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.security.core.Authentication;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -39,9 +42,11 @@ public class MessagingController {
     public List<MessageDto> latest(
             @AuthenticationPrincipal User me,
             @PathVariable Long conversationId,
-            @RequestParam(defaultValue = "30") int limit
+            @RequestParam(defaultValue = "30") int limit,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after
     ) {
-        return messagingService.getLatestMessages(me.getId(), conversationId, limit);
+        return messagingService.getMessages(me.getId(), conversationId, limit, before, after);
     }
 
     @PostMapping(
@@ -65,12 +70,16 @@ public class MessagingController {
         messagingService.deleteForMe(me.getId(), conversationId);
     }
 
+    // scris direct pe response: FileChannel.transferTo, Range si ETag (vezi BlobDownload)
     @GetMapping("/attachments/{attachmentId}")
-    public ResponseEntity<byte[]> download(
+    public void download(
             @AuthenticationPrincipal User me,
-            @PathVariable Long attachmentId
-    ) {
-        return messagingService.downloadAttachment(me.getId(), attachmentId);
+            @PathVariable Long attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        AttachmentContent att = messagingService.openAttachment(me.getId(), attachmentId);
+        BlobDownload.write(att.body(), att.sha256(), att.mimeType(), att.fileName(), request, response);
     }
 
 
@@ -1,22 +1,29 @@
 package com.platforma.backend.messages;
 
+import com.platforma.backend.messages.dto.AttachmentDto;
 import com.platforma.backend.messages.dto.ConversationListItemDto;
 import com.platforma.backend.messages.dto.MessageDto;
 import com.platforma.backend.profile.ProfileRepository;
+import com.platforma.backend.storage.BlobStore;
+import com.platforma.backend.ws.RealtimeOutbox;
 import com.platforma.backend.user.User;
 import com.platforma.backend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -28,8 +35,10 @@ public class MessagingService {
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final MessageAttachmentRepository attachmentRepository;
+    private final BlobStore blobStore;
+    private final InboxReadModel inboxReadModel;
 
-    private final SimpMessagingTemplate messaging; // ✅ ADD
+    private final RealtimeOutbox outbox;
 
     @Transactional
     public Conversation getOrCreateDirect(Long meId, Long otherUserId) {
@@ -54,50 +63,91 @@ public class MessagingService {
         User me = userRepository.findById(meId).orElseThrow();
         User other = userRepository.findById(otherUserId).orElseThrow();
 
-        participantRepository.save(ConversationParticipant.builder()
+        var meCp = participantRepository.save(ConversationParticipant.builder()
                 .conversation(c).user(me).deletedAt(null).build());
 
-        participantRepository.save(ConversationParticipant.builder()
+        var otherCp = participantRepository.save(ConversationParticipant.builder()
                 .conversation(c).user(other).deletedAt(null).build());
 
+        inboxReadModel.refresh(List.of(meCp, otherCp));
         return c;
     }
 
     @Transactional(readOnly = true)
     public List<ConversationListItemDto> listConversations(Long meId) {
+        // un singur query: participant + conversatie, datele celuilalt sunt denormalizate pe rand
         return participantRepository.listVisibleForUser(meId).stream().map(cp -> {
-            var cId = cp.getConversation().getId();
-
-            var otherCp = participantRepository.findOtherParticipant(cId, meId)
-                    .orElseThrow(() -> new RuntimeException("Invalid conversation"));
-
-            var other = otherCp.getUser();
-            var otherProfile = profileRepository.findById(other.getId()).orElse(null);
-
-            var lastMsg = messageRepository.latest(cId, PageRequest.of(0, 1)).stream().findFirst().orElse(null);
-            String preview = lastMsg == null || lastMsg.getContent() == null ? "" : lastMsg.getContent();
+            var conv = cp.getConversation();
+            if (cp.getOtherUserId() == null) return legacyListItem(conv, meId);
 
             return new ConversationListItemDto(
-                    cId,
-                    other.getId(),
-                    other.getFirstName() + " " + other.getLastName(),
-                    other.getRole().name(),
-                    otherProfile == null ? null : otherProfile.getAvatarUrl(),
-                    preview
+                    conv.getId(),
+                    cp.getOtherUserId(),
+                    cp.getOtherName(),
+                    cp.getOtherRole(),
+                    cp.getOtherAvatarUrl(),
+                    conv.getLastMessagePreview() == null ? "" : conv.getLastMessagePreview(),
+                    conv.getLastMessageAt()
             );
         }).toList();
     }
 
+    // conversatii create inainte de read model, pana le completeaza InboxReadModel.backfill
+    private ConversationListItemDto legacyListItem(Conversation conv, Long meId) {
+        var cId = conv.getId();
+
+        var otherCp = participantRepository.findOtherParticipant(cId, meId)
+                .orElseThrow(() -> new RuntimeException("Invalid conversation"));
+
+        var other = otherCp.getUser();
+        var otherProfile = profileRepository.findById(other.getId()).orElse(null);
+
+        var lastMsg = messageRepository.latest(cId, PageRequest.of(0, 1)).stream().findFirst().orElse(null);
+        String preview = lastMsg == null || lastMsg.getContent() == null ? "" : lastMsg.getContent();
+
+        return new ConversationListItemDto(
+                cId,
+                other.getId(),
+                other.getFirstName() + " " + other.getLastName(),
+                other.getRole().name(),
+                otherProfile == null ? null : otherProfile.getAvatarUrl(),
+                preview,
+                lastMsg == null ? null : lastMsg.getCreatedAt()
+        );
+    }
+
     @Transactional(readOnly = true)
     public List<MessageDto> getLatestMessages(Long meId, Long conversationId, int limit) {
+        return getMessages(meId, conversationId, limit, null, null);
+    }
+
+    /**
+     * Cursor pagination on message id, newest first in the response.
+     * {@code before}: the page right before that message; {@code after}: up to {@code limit}
+     * messages right after it (what a reconnecting client missed). No cursor = latest page.
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDto> getMessages(Long meId, Long conversationId, int limit, Long before, Long after) {
         ensureMember(meId, conversationId);
 
+        if (before != null && after != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Use either before or after, not both.");
+        }
+
         int safeLimit = Math.max(1, Math.min(limit, 50));
+        var page = PageRequest.of(0, safeLimit);
+
+        List<Message> messages;
+        if (before != null) {
+            messages = messageRepository.before(conversationId, before, page);
+        } else if (after != null) {
+            messages = new ArrayList<>(messageRepository.after(conversationId, after, page));
+            Collections.reverse(messages);
+        } else {
+            messages = messageRepository.latest(conversationId, page);
+        }
 
-        return messageRepository.latest(conversationId, PageRequest.of(0, safeLimit))
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return toDtos(messages);
     }
 
     @Transactional
@@ -132,11 +182,12 @@ public class MessagingService {
                 .build());
 
         if (hasFile) {
-            byte[] bytes;
-            try {
-                bytes = file.getBytes();
+            // streamed in blob store (hash calculat pe drum), in tabel raman doar metadatele
+            BlobStore.BlobRef blob;
+            try (InputStream in = file.getInputStream()) {
+                blob = blobStore.put(in);
             } catch (Exception e) {
-                throw new RuntimeException("Failed to read file");
+                throw new RuntimeException("Failed to read file", e);
             }
 
             String originalName = file.getOriginalFilename() == null ? "attachment.pdf" : file.getOriginalFilename();
@@ -144,35 +195,40 @@ public class MessagingService {
                     .message(msg)
                     .originalName(originalName)
                     .mimeType("application/pdf")
-                    .sizeBytes(file.getSize())
-                    .data(bytes)
+                    .sizeBytes(blob.sizeBytes())
+                    .sha256(blob.sha256())
                     .build());
         }
 
         conv.setUpdatedAt(Instant.now());
+        conv.setLastMessageId(msg.getId());
+        conv.setLastMessagePreview(InboxReadModel.preview(text));
+        conv.setLastMessageAt(msg.getCreatedAt());
         conversationRepository.save(conv);
 
-        MessageDto dto = toDto(msg);
+        MessageDto dto = toDtos(List.of(msg)).get(0);
 
-        // ✅ BROADCAST către toți abonații conversației
-        messaging.convertAndSend("/topic/conversations." + conversationId, dto);
+        // ✅ BROADCAST către toți abonații conversației (dupa commit, vezi RealtimeOutbox)
+        outbox.publish("/topic/conversations." + conversationId, dto);
 
         return dto;
     }
 
     @Transactional(readOnly = true)
-    public ResponseEntity<byte[]> downloadAttachment(Long meId, Long attachmentId) {
+    public AttachmentContent openAttachment(Long meId, Long attachmentId) {
         var att = attachmentRepository.findById(attachmentId).orElseThrow();
 
         Long conversationId = att.getMessage().getConversation().getId();
         ensureMember(meId, conversationId);
 
         String fileName = att.getOriginalName() == null ? "attachment.pdf" : att.getOriginalName().replace("\"", "");
+        String mimeType = att.getMimeType() == null ? "application/pdf" : att.getMimeType();
+
+        // sha256 lipseste doar daca AttachmentBlobMigration n-a putut muta randul
+        Resource body = att.getSha256() == null ? null : blobStore.get(att.getSha256());
+        if (body == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment content missing");
 
-        return ResponseEntity.ok()
-                .header("Content-Type", att.getMimeType() == null ? "application/pdf" : att.getMimeType())
-                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                .body(att.getData());
+        return new AttachmentContent(body, att.getSha256(), mimeType, fileName);
     }
 
     @Transactional
@@ -191,22 +247,24 @@ public class MessagingService {
                 .orElseThrow(() -> new RuntimeException("Not allowed"));
     }
 
-    private MessageDto toDto(Message m) {
-        var atts = attachmentRepository.findByMessageId(m.getId()).stream()
-                .map(a -> new com.platforma.backend.messages.dto.AttachmentDto(
-                        a.getId(),
-                        a.getOriginalName(),
-                        a.getMimeType(),
-                        a.getSizeBytes()
+    // un singur query pentru atasamentele intregii pagini (fara coloana data)
+    private List<MessageDto> toDtos(List<Message> messages) {
+        if (messages.isEmpty()) return List.of();
+
+        Map<Long, List<AttachmentDto>> atts = new HashMap<>();
+        for (AttachmentRow a : attachmentRepository.findMetaByMessageIds(messages.stream().map(Message::getId).toList())) {
+            atts.computeIfAbsent(a.messageId(), k -> new ArrayList<>())
+                    .add(new AttachmentDto(a.id(), a.originalName(), a.mimeType(), a.sizeBytes()));
+        }
+
+        return messages.stream()
+                .map(m -> new MessageDto(
+                        m.getId(),
+                        m.getSender().getId(),
+                        m.getContent(),
+                        m.getCreatedAt(),
+                        atts.getOrDefault(m.getId(), List.of())
                 ))
                 .toList();
-
-        return new com.platforma.backend.messages.dto.MessageDto(
-                m.getId(),
-                m.getSender().getId(),
-                m.getContent(),
-                m.getCreatedAt(),
-                atts
-        );
     }
 }
@@ -1,12 +1,18 @@
 package com.platforma.backend.profile;
 
+import com.platforma.backend.common.AfterCommit;
+import com.platforma.backend.matching.MatchingIndex;
+import com.platforma.backend.messages.InboxReadModel;
 import com.platforma.backend.user.User;
 import com.platforma.backend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import com.platforma.backend.profile.dto.ProfileUpdateRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,6 +21,8 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final UserRepository userRepository;
+    private final MatchingIndex matchingIndex;
+    private final InboxReadModel inboxReadModel;
 
     public Profile createProfileForUser(User user) {
         Profile profile = Profile.builder()
@@ -23,7 +31,10 @@ public class ProfileService {
                 .openToMentoring(false)
                 .build();
 
-        return profileRepository.save(profile);
+        Profile saved = profileRepository.save(profile);
+        // la inregistrare ruleaza in tranzactia apelantului: indexam doar dupa commit
+        AfterCommit.run(() -> matchingIndex.put(user, saved));
+        return saved;
     }
 
     public Profile getProfile(Long userId) {
@@ -35,6 +46,16 @@ public class ProfileService {
                 });
     }
 
+    /**
+     * Loads the profiles of several users with one IN query. Read-only: users without
+     * a profile row are simply missing from the map (no profile gets created here).
+     */
+    public Map<Long, Profile> getProfiles(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) return Map.of();
+        return profileRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(Profile::getId, Function.identity()));
+    }
+
     public Profile updateProfile(Long userId, ProfileUpdateRequest req) {
         Profile p = profileRepository.findById(userId)
                 .orElseGet(() -> {
@@ -123,13 +144,19 @@ public class ProfileService {
         p.setGithubUrl(req.githubUrl());
         p.setWebsite(req.website());
 
-        return profileRepository.save(p);
+        Profile saved = profileRepository.save(p);
+        reindex(saved);
+        return saved;
     }
 
     public Profile updateAvatar(Long userId, String avatarUrl) {
         Profile profile = getProfile(userId);
         profile.setAvatarUrl(avatarUrl);
-        return profileRepository.save(profile);
+        Profile saved = profileRepository.save(profile);
+        reindex(saved);
+        // avatarul apare si pe randurile de inbox ale celorlalti
+        inboxReadModel.refreshUser(userId);
+        return saved;
     }
 
     public Profile updateCvUrl(Long userId, String cvUrl) {
@@ -138,6 +165,9 @@ public class ProfileService {
         return profileRepository.save(p);
     }
 
-
+    private void reindex(Profile p) {
+        User user = p.getUser() != null ? p.getUser() : userRepository.findById(p.getId()).orElse(null);
+        AfterCommit.run(() -> matchingIndex.put(user, p));
+    }
 
 }
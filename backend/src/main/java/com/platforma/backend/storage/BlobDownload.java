@@ -0,0 +1,140 @@
+package com.platforma.backend.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Writes a blob to the servlet response without buffering it on-heap:
+ * file-backed blobs go through {@link FileChannel#transferTo}, everything else is streamed.
+ *
+ * Handles a single {@code Range} (206 / 416) and a strong ETag built from the content hash,
+ * so {@code If-None-Match} answers 304 and {@code If-Range} only honours ranges of the same content.
+ */
+public final class BlobDownload {
+
+    private BlobDownload() {
+    }
+
+    public static void write(
+            Resource body,
+            String sha256,
+            String contentType,
+            String fileName,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String etag = sha256 == null ? null : "\"" + sha256 + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // continutul e privat (doar membrii conversatiei), dar nu se schimba niciodata pentru acelasi hash
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag != null) response.setHeader(HttpHeaders.ETAG, etag);
+
+        if (etag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = body.contentLength();
+        long start = 0;
+        long count = length;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean rangeAllowed = ifRange == null || (etag != null && ifRange.trim().equals(etag));
+
+        if (rangeHeader != null && rangeAllowed) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            // mai multe range-uri (multipart/byteranges) -> raspuns complet, permis de RFC 9110
+            if (ranges.size() == 1) {
+                HttpRange r = ranges.get(0);
+                long first;
+                long last;
+                try {
+                    first = r.getRangeStart(length);
+                    last = r.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    first = length;
+                    last = -1;
+                }
+
+                if (length == 0 || first >= length || last < first) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+
+                start = first;
+                count = last - first + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + length);
+            }
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) return;
+
+        OutputStream out = response.getOutputStream();
+        try (ReadableByteChannel source = body.readableChannel()) {
+            if (source instanceof FileChannel file) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long pos = start;
+                long remaining = count;
+                while (remaining > 0) {
+                    long n = file.transferTo(pos, remaining, target);
+                    if (n <= 0) break;
+                    pos += n;
+                    remaining -= n;
+                }
+            } else {
+                try (InputStream in = Channels.newInputStream(source)) {
+                    in.skipNBytes(start);
+                    copy(in, out, count);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buf = new byte[8192];
+        long remaining = count;
+        while (remaining > 0) {
+            int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+            if (n < 0) break;
+            out.write(buf, 0, n);
+            remaining -= n;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.platforma.backend.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Content-addressed blob storage: blobs are keyed by the SHA-256 of their bytes,
+ * so identical uploads are stored once. Blobs are written before the referencing row
+ * commits and never deleted by the writer; unreferenced ones are removed later by a sweep.
+ */
+public interface BlobStore {
+
+    record BlobRef(String sha256, long sizeBytes) {}
+
+    /**
+     * Streams {@code in} into the store (no full in-memory buffering) and returns its key.
+     * Storing content that already exists refreshes its age, see {@link #forEachOlderThan}.
+     */
+    BlobRef put(InputStream in) throws IOException;
+
+    /**
+     * Readable resource for the blob, or null if it does not exist.
+     */
+    Resource get(String sha256);
+
+    boolean exists(String sha256);
+
+    /**
+     * Calls {@code action} with the key of every blob last stored before {@code cutoff}.
+     */
+    void forEachOlderThan(Instant cutoff, Consumer<String> action) throws IOException;
+
+    /**
+     * Deletes the blob unless it was stored again at or after {@code cutoff}. Returns true if deleted.
+     */
+    boolean deleteIfOlderThan(String sha256, Instant cutoff) throws IOException;
+}
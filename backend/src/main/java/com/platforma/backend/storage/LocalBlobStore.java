@@ -0,0 +1,129 @@
+package com.platforma.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link BlobStore}: files under {blobs}/ab/cd/abcd..., written to a temp file
+ * while hashing, then moved into place. The directory must not be under app.uploads.dir,
+ * which is served publicly at /uploads/**; blobs are only reachable through access-checked endpoints.
+ */
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${app.blobs.dir:blobs}") String blobsDir) throws IOException {
+        this.root = Path.of(blobsDir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    @Override
+    public BlobRef put(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+
+        try {
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = in.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+
+            // acelasi continut deja stocat (ex. PDF trimis in mai multe conversatii);
+            // mtime = ultima scriere, ca sweep-ul sa nu-l stearga inainte de commit-ul noului rand
+            if (touch(target)) return new BlobRef(hash, size);
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // upload concurent cu acelasi continut, tocmai scris
+            }
+            return new BlobRef(hash, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Resource get(String sha256) {
+        Path p = pathOf(sha256);
+        return Files.isRegularFile(p) ? new FileSystemResource(p) : null;
+    }
+
+    @Override
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(pathOf(sha256));
+    }
+
+    @Override
+    public void forEachOlderThan(Instant cutoff, Consumer<String> action) throws IOException {
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(p -> KEY.matcher(p.getFileName().toString()).matches())
+                    .filter(p -> lastStored(p).isBefore(cutoff))
+                    .forEach(p -> action.accept(p.getFileName().toString()));
+        }
+    }
+
+    @Override
+    public boolean deleteIfOlderThan(String sha256, Instant cutoff) throws IOException {
+        Path p = pathOf(sha256);
+        if (!lastStored(p).isBefore(cutoff)) return false;
+        return Files.deleteIfExists(p);
+    }
+
+    // false daca blob-ul nu exista (sau tocmai l-a sters sweep-ul)
+    private static boolean touch(Path p) throws IOException {
+        try {
+            Files.setLastModifiedTime(p, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static Instant lastStored(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toInstant();
+        } catch (IOException e) {
+            // disparut intre timp: nu mai e nimic de sters
+            return Instant.MAX;
+        }
+    }
+
+    private Path pathOf(String sha256) {
+        if (sha256 == null || !KEY.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
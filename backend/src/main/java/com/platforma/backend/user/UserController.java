@@ -1,5 +1,8 @@
 package com.platforma.backend.user;
 
+import com.platforma.backend.auth.PrincipalCache;
+import com.platforma.backend.matching.MatchingIndex;
+import com.platforma.backend.messages.InboxReadModel;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +15,9 @@ import java.util.Map;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final MatchingIndex matchingIndex;
+    private final PrincipalCache principalCache;
+    private final InboxReadModel inboxReadModel;
 
     @PutMapping("/me/role")
     public User updateRole(
@@ -20,7 +26,16 @@ public class UserController {
     ) {
         String role = body.get("role");
 
-        user.setRole(Role.valueOf(role));
-        return userRepository.save(user);
+        // principalul e o copie din PrincipalCache: modificam randul proaspat citit, nu copia
+        User current = userRepository.findById(user.getId()).orElseThrow();
+        current.setRole(Role.valueOf(role));
+        try {
+            User saved = userRepository.save(current);
+            matchingIndex.updateUser(saved);
+            inboxReadModel.refreshUser(saved.getId());
+            return saved;
+        } finally {
+            principalCache.evict(current.getEmail());
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.platforma.backend.ws;
+
+import com.platforma.backend.common.AfterCommit;
+import com.platforma.backend.common.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transactional outbox for STOMP broadcasts.
+ *
+ * Events published inside a transaction are buffered and only handed to the dispatcher
+ * after commit (dropped on rollback); outside a transaction they are queued right away.
+ * A single dispatcher thread drains the queue and sends everything queued for the same
+ * destination as one frame: the payload itself, or a JSON array when there are several.
+ */
+@Component
+public class RealtimeOutbox implements MetricsSource {
+
+    private record Outbound(String user, String destination, Object payload, long queuedAt) {
+
+        String key() {
+            return user == null ? destination : user + "\u0000" + destination;
+        }
+    }
+
+    private final SimpMessagingTemplate messaging;
+    private final BlockingQueue<Outbound> queue;
+    private final int maxBatch;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder latencyTotalNanos = new LongAdder();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+
+    public RealtimeOutbox(
+            SimpMessagingTemplate messaging,
+            @Value("${realtime.outbox.capacity:10000}") int capacity,
+            @Value("${realtime.outbox.max-batch:256}") int maxBatch
+    ) {
+        this.messaging = messaging;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+
+        this.dispatcher = new Thread(this::run, "ws-outbox");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public void publish(String destination, Object payload) {
+        add(new Outbound(null, destination, payload, 0));
+    }
+
+    public void publishToUser(String user, String destination, Object payload) {
+        add(new Outbound(user, destination, payload, 0));
+    }
+
+    private void add(Outbound event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Outbound> pending = (List<Outbound>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Outbound> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            AfterCommit.register(
+                    () -> enqueue(buffer),
+                    () -> TransactionSynchronizationManager.unbindResourceIfPossible(this));
+            pending = buffer;
+        }
+        pending.add(event);
+    }
+
+    private void enqueue(List<Outbound> events) {
+        long now = System.nanoTime();
+        for (Outbound e : events) {
+            // coada plina: evenimentul se pierde, clientii se resincronizeaza la reconectare
+            if (!queue.offer(new Outbound(e.user(), e.destination(), e.payload(), now))) dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<Outbound> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Outbound first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Outbound> batch) {
+        // ordinea se pastreaza per destinatie
+        Map<String, List<Outbound>> byDestination = new LinkedHashMap<>();
+        for (Outbound e : batch) byDestination.computeIfAbsent(e.key(), k -> new ArrayList<>()).add(e);
+
+        for (List<Outbound> group : byDestination.values()) {
+            Outbound head = group.get(0);
+            Object payload = group.size() == 1
+                    ? head.payload()
+                    : group.stream().map(Outbound::payload).toList();
+
+            try {
+                if (head.user() == null) {
+                    messaging.convertAndSend(head.destination(), payload);
+                } else {
+                    messaging.convertAndSendToUser(head.user(), head.destination(), payload);
+                }
+                frames.increment();
+            } catch (Exception ex) {
+                failed.add(group.size());
+                continue;
+            }
+
+            long now = System.nanoTime();
+            for (Outbound e : group) {
+                long latency = now - e.queuedAt();
+                latencyTotalNanos.add(latency);
+                latencyMaxNanos.accumulateAndGet(latency, Math::max);
+            }
+            published.add(group.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    @Override
+    public String metricsName() {
+        return "realtime.outbox";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long n = published.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("queueDepth", queue.size());
+        m.put("published", n);
+        m.put("frames", frames.sum());
+        m.put("dropped", dropped.sum());
+        m.put("failed", failed.sum());
+        m.put("publishLatencyAvgMs", n == 0 ? 0.0 : latencyTotalNanos.sum() / (double) n / 1_000_000);
+        m.put("publishLatencyMaxMs", latencyMaxNanos.get() / 1_000_000.0);
+        return m;
+    }
+}
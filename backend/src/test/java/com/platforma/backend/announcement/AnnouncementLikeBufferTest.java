@@ -0,0 +1,95 @@
+package com.platforma.backend.announcement;
+
+import com.platforma.backend.announcement.AnnouncementLikeBuffer.LikeState;
+import com.platforma.backend.ws.RealtimeOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnnouncementLikeBufferTest {
+
+    private final AnnouncementPostRepository postRepo = mock(AnnouncementPostRepository.class);
+    private final AnnouncementLikeRepository likeRepo = mock(AnnouncementLikeRepository.class);
+    private final RealtimeOutbox outbox = mock(RealtimeOutbox.class);
+
+    private AnnouncementLikeBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new AnnouncementLikeBuffer(postRepo, likeRepo,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), outbox);
+
+        when(postRepo.existsById(1L)).thenReturn(true);
+        when(likeRepo.findUserIdsByPostId(1L)).thenReturn(List.of(7L));
+        when(postRepo.lockById(1L)).thenReturn(1L);
+        when(likeRepo.insertLike(anyLong(), anyLong())).thenReturn(1);
+        when(likeRepo.removeLike(anyLong(), anyLong())).thenReturn(1);
+    }
+
+    @Test
+    void flushWritesTheFinalStateOfEachUserOnce() {
+        assertThat(buffer.toggle(1L, 10L)).isEqualTo(new LikeState(2, true));
+        assertThat(buffer.toggle(1L, 11L)).isEqualTo(new LikeState(3, true));
+        assertThat(buffer.toggle(1L, 11L)).isEqualTo(new LikeState(2, false));
+
+        buffer.flush();
+
+        verify(likeRepo).insertLike(1L, 10L);
+        verify(likeRepo, never()).insertLike(1L, 11L);
+        verify(likeRepo).removeLike(1L, 11L);
+        verify(outbox).publish(eq("/topic/announcements"), any());
+    }
+
+    @Test
+    void flushSkipsAndForgetsADeletedPost() {
+        buffer.toggle(1L, 10L);
+        when(postRepo.lockById(1L)).thenReturn(null);
+
+        buffer.flush();
+
+        verify(likeRepo, never()).insertLike(anyLong(), anyLong());
+        verify(outbox, never()).publish(anyString(), any());
+        assertThat(buffer.peek(1L, 10L)).isNull();
+    }
+
+    @Test
+    void withFlushedWritesPendingLikesFirstAndDoesNotBlockTogglesDuringTheAction() {
+        buffer.toggle(1L, 10L);
+        Runnable action = mock(Runnable.class);
+        doAnswer(inv -> {
+            // un toggle pe acelasi stripe nu asteapta dupa reconciliere
+            CompletableFuture.runAsync(() -> buffer.toggle(1L, 11L)).get(5, SECONDS);
+            return null;
+        }).when(action).run();
+
+        buffer.withFlushed(1L, action);
+
+        InOrder order = inOrder(likeRepo, action);
+        order.verify(likeRepo).insertLike(1L, 10L);
+        order.verify(action).run();
+
+        // toggle-ul din timpul actiunii ramane in buffer pentru urmatorul flush
+        assertThat(buffer.peek(1L, 11L)).isEqualTo(new LikeState(3, true));
+        buffer.flush();
+        verify(likeRepo).insertLike(1L, 11L);
+    }
+
+    @Test
+    void withFlushedDropsTheStateWhenNothingIsPending() {
+        buffer.toggle(1L, 10L);
+
+        buffer.withFlushed(1L, () -> { });
+
+        assertThat(buffer.peek(1L, 10L)).isNull();
+    }
+}
@@ -0,0 +1,48 @@
+package com.platforma.backend.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    @Test
+    void fullQueueFailsFastWith503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "hash:" + inv.getArgument(0);
+        });
+
+        PasswordHasher hasher = new PasswordHasher(encoder, 1, 1);
+        try {
+            CompletableFuture<String> running = hasher.encode("a");
+            CompletableFuture<String> queued = hasher.encode("b");
+
+            assertThatThrownBy(() -> hasher.encode("c"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            assertThat(hasher.tryEncode("d")).isNull();
+            assertThat(hasher.metrics()).containsEntry("rejected", 1L);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+        } finally {
+            release.countDown();
+            hasher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.platforma.backend.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long TEN_MINUTES = Duration.ofMinutes(10).toMillis();
+
+    @Test
+    void fullCacheEvictsOldEntriesInsteadOfRefusingNewTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(TEN_MINUTES, 4);
+        for (int i = 0; i < 4; i++) cache.put("k" + i, token("user" + i, Duration.ofDays(7)));
+
+        cache.put("new", token("newcomer", Duration.ofDays(7)));
+
+        assertThat(cache.get("new")).isNotNull();
+        assertThat((int) cache.metrics().get("size")).isLessThanOrEqualTo(4);
+        assertThat((long) cache.metrics().get("evicted")).isPositive();
+    }
+
+    @Test
+    void ttlCapsLongLivedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, 4);
+
+        cache.put("k", token("user", Duration.ofDays(7)));
+
+        assertThat(cache.get("k")).isNull();
+    }
+
+    @Test
+    void entryIsNotServedPastTheTokenExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(TEN_MINUTES, 4);
+
+        cache.put("k", token("user", Duration.ofSeconds(-1)));
+
+        assertThat(cache.get("k")).isNull();
+    }
+
+    @Test
+    void keyIsTheHexSha256OfTheToken() {
+        assertThat(VerifiedTokenCache.keyOf("abc"))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    private static JwtService.VerifiedToken token(String subject, Duration validFor) {
+        Instant now = Instant.now();
+        return new JwtService.VerifiedToken(subject, "CITIZEN", now, now.plus(validFor));
+    }
+}
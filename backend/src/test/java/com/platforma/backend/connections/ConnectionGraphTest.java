@@ -0,0 +1,95 @@
+package com.platforma.backend.connections;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.platforma.backend.connections.ConnectionRequest.Status.ACCEPTED;
+import static com.platforma.backend.connections.ConnectionRequest.Status.PENDING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConnectionGraphTest {
+
+    private final ConnectionRequestRepository repository = mock(ConnectionRequestRepository.class);
+    private final ConnectionGraph graph = new ConnectionGraph(repository);
+
+    @Test
+    void suggestionsCountMutualConnectionsExactly() {
+        warmUp(List.of(
+                edge(1, 2, ACCEPTED), edge(1, 3, ACCEPTED), edge(4, 1, ACCEPTED),
+                edge(2, 5, ACCEPTED), edge(2, 6, ACCEPTED),
+                edge(3, 5, ACCEPTED), edge(7, 3, ACCEPTED),
+                edge(4, 5, ACCEPTED), edge(4, 6, ACCEPTED), edge(4, 8, ACCEPTED),
+                // cerere trimisa deja: nu mai e sugestie
+                edge(1, 8, PENDING)
+        ));
+
+        assertThat(graph.suggestions(1L, 10)).containsExactly(
+                new ConnectionGraph.Suggestion(5, 3),
+                new ConnectionGraph.Suggestion(6, 2),
+                new ConnectionGraph.Suggestion(7, 1)
+        );
+        assertThat(graph.suggestions(1L, 1)).containsExactly(new ConnectionGraph.Suggestion(5, 3));
+    }
+
+    @Test
+    void largeNetworksDoNotBiasTowardsLowIds() {
+        List<ConnectionEdge> edges = new ArrayList<>(List.of(edge(1, 2, ACCEPTED), edge(1, 3, ACCEPTED)));
+        for (long id = 100; id < 1100; id++) edges.add(edge(2, id, ACCEPTED));
+        edges.add(edge(2, 5000, ACCEPTED));
+        edges.add(edge(3, 5000, ACCEPTED));
+        warmUp(edges);
+
+        assertThat(graph.suggestions(1L, 1)).containsExactly(new ConnectionGraph.Suggestion(5000, 2));
+        assertThat(graph.mutualCount(1L, 5000L)).isEqualTo(2);
+    }
+
+    @Test
+    void mutationsCommittedDuringWarmUpAreReplayedAfterTheSwap() {
+        List<ConnectionEdge> edges = List.of(edge(1, 2, PENDING, 200), edge(3, 1, ACCEPTED, 100));
+        when(repository.streamOpenEdges()).thenReturn(edges.stream().peek(e -> {
+            // commit-uri care ajung in timp ce warm-up-ul citeste muchiile
+            if (e.requesterId() == 1L) {
+                graph.accepted(1L, 2L, Instant.ofEpochMilli(200));
+                graph.requested(4L, 1L);
+            }
+        }));
+
+        graph.warmUp();
+
+        assertThat(graph.isReady()).isTrue();
+        assertThat(graph.statusBetween(1L, 2L)).isEqualTo("CONNECTED");
+        assertThat(graph.statusBetween(2L, 1L)).isEqualTo("CONNECTED");
+        assertThat(graph.statusBetween(1L, 4L)).isEqualTo("INCOMING_PENDING");
+        assertThat(graph.connectionsByRecency(1L)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void connectionsByRecencyKeepRequestOrderAcrossLiveAccepts() {
+        warmUp(List.of(edge(1, 2, ACCEPTED, 300), edge(4, 1, PENDING, 200), edge(3, 1, ACCEPTED, 100)));
+
+        graph.accepted(4L, 1L, Instant.ofEpochMilli(200));
+
+        assertThat(graph.connectionsByRecency(1L)).containsExactly(2L, 4L, 3L);
+        assertThat(graph.connectionsByRecency(4L)).containsExactly(1L);
+        assertThat(graph.connectionsOf(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(graph.statusBetween(4L, 1L)).isEqualTo("CONNECTED");
+    }
+
+    private void warmUp(List<ConnectionEdge> edges) {
+        when(repository.streamOpenEdges()).thenReturn(edges.stream());
+        graph.warmUp();
+    }
+
+    private static ConnectionEdge edge(long requesterId, long addresseeId, ConnectionRequest.Status status) {
+        return edge(requesterId, addresseeId, status, 0);
+    }
+
+    private static ConnectionEdge edge(long requesterId, long addresseeId, ConnectionRequest.Status status, long createdAt) {
+        return new ConnectionEdge(requesterId, addresseeId, status, Instant.ofEpochMilli(createdAt));
+    }
+}
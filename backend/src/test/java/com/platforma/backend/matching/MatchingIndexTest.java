@@ -0,0 +1,182 @@
+package com.platforma.backend.matching;
+
+import com.platforma.backend.matching.dto.MatchingFacetsDto;
+import com.platforma.backend.profile.Availability;
+import com.platforma.backend.profile.ExperienceLevel;
+import com.platforma.backend.profile.Profile;
+import com.platforma.backend.profile.ProfileRepository;
+import com.platforma.backend.user.Role;
+import com.platforma.backend.user.User;
+import com.platforma.backend.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MatchingIndexTest {
+
+    private MatchingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // repository-urile sunt folosite doar de warmUp()
+        index = new MatchingIndex(null, null);
+
+        index.put(user(1L, "Ana", "Pop", Role.MENTORS),
+                profile(Availability.FULL_TIME, ExperienceLevel.SENIOR, true, true, "AI", "Cloud"));
+        index.put(user(2L, "Bob", "Ion", Role.ENTREPRENEURS),
+                profile(Availability.PART_TIME, ExperienceLevel.JUNIOR, true, false, "Agritech"));
+        index.put(user(3L, "Cor", "Dan", Role.MENTORS),
+                profile(Availability.FULL_TIME, ExperienceLevel.MID, false, true, "ai ethics"));
+        index.put(user(4L, "Dan", "Vlad", Role.INVESTORS), null);
+    }
+
+    @Test
+    void noFilterMatchesEveryone() {
+        assertThat(ids(index.filter(filter().build()))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void enumFacetsAreIntersected() {
+        BitSet hits = index.filter(filter().availability("FULL_TIME").role("mentors").build());
+
+        assertThat(ids(hits)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void booleanFacetsIntersectOrExclude() {
+        assertThat(ids(index.filter(filter().role("MENTORS").openToProjects(true).build())))
+                .containsExactly(1L);
+
+        // fara profil = nu e deschis la mentorat
+        assertThat(ids(index.filter(filter().openToMentoring(false).build())))
+                .containsExactly(2L, 4L);
+    }
+
+    @Test
+    void expertiseAreaMatchesAnyAreaContainingTheText() {
+        assertThat(ids(index.filter(filter().expertiseArea(" AI ").build()))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void unknownEnumValueMatchesNobody() {
+        assertThat(ids(index.filter(filter().availability("SOMETIMES").build()))).isEmpty();
+    }
+
+    @Test
+    void excludesMeAndFiltersByName() {
+        assertThat(ids(index.filter(filter().excludeUserId(1L).role("MENTORS").build()))).containsExactly(3L);
+        assertThat(ids(index.filter(filter().name("dan").build()))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void facetCountsAreLimitedToTheHits() {
+        MatchingFacetsDto facets = index.facets(index.filter(filter().role("MENTORS").build()));
+
+        assertThat(facets.availability()).contains(entry("FULL_TIME", 2), entry("PART_TIME", 0));
+        assertThat(facets.experienceLevel()).contains(entry("SENIOR", 1), entry("MID", 1), entry("JUNIOR", 0));
+        assertThat(facets.role()).contains(entry("MENTORS", 2), entry("ENTREPRENEURS", 0));
+        assertThat(facets.openToProjects()).isEqualTo(1);
+        assertThat(facets.openToMentoring()).isEqualTo(2);
+        assertThat(facets.expertAreas()).containsOnly(entry("AI", 1), entry("Cloud", 1), entry("ai ethics", 1));
+    }
+
+    @Test
+    void updateMovesTheUserBetweenFacetBitsets() {
+        index.put(user(3L, "Cor", "Dan", Role.MENTORS),
+                profile(Availability.PART_TIME, ExperienceLevel.MID, false, true, "Cloud"));
+
+        assertThat(ids(index.filter(filter().availability("FULL_TIME").build()))).containsExactly(1L);
+        assertThat(ids(index.filter(filter().availability("PART_TIME").build()))).containsExactly(2L, 3L);
+        assertThat(ids(index.filter(filter().expertiseArea("ethics").build()))).isEmpty();
+        assertThat(index.facets(index.filter(filter().build())).expertAreas()).doesNotContainKey("ai ethics");
+    }
+
+    @Test
+    void removedUserLeavesEveryBitset() {
+        index.remove(1L);
+
+        assertThat(ids(index.filter(filter().availability("FULL_TIME").build()))).containsExactly(3L);
+        assertThat(index.facets(index.filter(filter().build())).openToProjects()).isEqualTo(1);
+        assertThat(ids(index.filter(filter().build()))).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void mutationsCommittedDuringWarmUpWinOverTheLoadedRows() {
+        UserRepository users = mock(UserRepository.class);
+        ProfileRepository profiles = mock(ProfileRepository.class);
+        MatchingIndex warming = new MatchingIndex(users, profiles);
+
+        when(profiles.findAll()).thenReturn(List.of());
+        when(users.findAll()).thenAnswer(inv -> {
+            // commit-uri care ajung dupa ce warm-up-ul a citit randurile
+            warming.put(user(5L, "New", "Name", Role.MENTORS), null);
+            warming.remove(6L);
+            return List.of(user(5L, "Old", "Name", Role.MENTORS), user(6L, "Gone", "User", Role.CITIZEN));
+        });
+
+        warming.warmUp();
+
+        assertThat(warming.get(5L).firstName()).isEqualTo("New");
+        assertThat(warming.get(6L)).isNull();
+        assertThat(warming.drainChanged()).containsExactlyInAnyOrder(5L, 6L);
+    }
+
+    private List<Long> ids(BitSet hits) {
+        List<Long> out = new ArrayList<>();
+        index.forEach(hits, e -> out.add(e.userId()));
+        out.sort(null);
+        return out;
+    }
+
+    private static FilterBuilder filter() {
+        return new FilterBuilder();
+    }
+
+    private static final class FilterBuilder {
+        private Long excludeUserId;
+        private String name;
+        private String expertiseArea;
+        private String availability;
+        private String experienceLevel;
+        private String role;
+        private Boolean openToProjects;
+        private Boolean openToMentoring;
+
+        FilterBuilder excludeUserId(Long v) { excludeUserId = v; return this; }
+        FilterBuilder name(String v) { name = v; return this; }
+        FilterBuilder expertiseArea(String v) { expertiseArea = v; return this; }
+        FilterBuilder availability(String v) { availability = v; return this; }
+        FilterBuilder experienceLevel(String v) { experienceLevel = v; return this; }
+        FilterBuilder role(String v) { role = v; return this; }
+        FilterBuilder openToProjects(Boolean v) { openToProjects = v; return this; }
+        FilterBuilder openToMentoring(Boolean v) { openToMentoring = v; return this; }
+
+        MatchingIndex.Filter build() {
+            return new MatchingIndex.Filter(excludeUserId, name, expertiseArea, availability, experienceLevel,
+                    role, openToProjects, openToMentoring);
+        }
+    }
+
+    private static User user(Long id, String first, String last, Role role) {
+        return User.builder().id(id).firstName(first).lastName(last).email(first + "@test").role(role).build();
+    }
+
+    private static Profile profile(Availability availability, ExperienceLevel level,
+                                   boolean projects, boolean mentoring, String... areas) {
+        return Profile.builder()
+                .availability(availability)
+                .experienceLevel(level)
+                .openToProjects(projects)
+                .openToMentoring(mentoring)
+                .expertAreas(List.of(areas))
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.platforma.backend.matching;
+
+import com.platforma.backend.user.Role;
+import com.platforma.backend.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class MatchingRecommendationServiceTest {
+
+    private MatchingIndex index;
+    private MatchingRecommendationRepository repository;
+    private MatchingRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        index = new MatchingIndex(null, null);
+        for (long id = 1; id <= 3; id++) index.put(user(id), null);
+
+        repository = mock(MatchingRecommendationRepository.class);
+        when(repository.findAllStored()).thenReturn(List.of());
+
+        service = new MatchingRecommendationService(index, repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "topN", 10);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+    }
+
+    @Test
+    void refreshIsSkippedWhileRebuildRunsAndPicksUpChangesAfterwards() throws Exception {
+        CountDownLatch inRebuild = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            inRebuild.countDown();
+            release.await(5, SECONDS);
+            return null;
+        }).doNothing().when(repository).deleteByUserId(anyLong());
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(service::rebuildAll);
+        try {
+            assertThat(inRebuild.await(5, SECONDS)).isTrue();
+
+            // modificat in timpul rebuild-ului, dupa ce acesta a golit lista de modificari
+            index.put(user(2L), null);
+            service.refreshChanged();
+        } finally {
+            release.countDown();
+        }
+        rebuild.get(5, SECONDS);
+
+        // refresh-ul n-a pornit deloc: nici incarcarea listelor, nici un al doilea rebuild
+        verify(repository, never()).findAllStored();
+        verify(repository, times(3)).deleteByUserId(anyLong());
+
+        service.refreshChanged();
+
+        verify(repository, times(2)).deleteByUserId(2L);
+        verify(repository, times(1)).deleteByUserId(1L);
+    }
+
+    @Test
+    void failedRebuildHandsTheDrainedIdsBack() {
+        doThrow(new IllegalStateException("db down")).when(repository).deleteByUserId(anyLong());
+
+        assertThatThrownBy(service::rebuildAll).isInstanceOf(IllegalStateException.class);
+
+        assertThat(index.drainChanged()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).firstName("U" + id).lastName("Test").email(id + "@test").role(Role.CITIZEN).build();
+    }
+}
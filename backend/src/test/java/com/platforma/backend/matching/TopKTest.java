@@ -0,0 +1,89 @@
+package com.platforma.backend.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    private record Item(String name, int score) {}
+
+    // ca in MatchingController: criteriul principal, apoi un tie-breaker stabil
+    private static final Comparator<Item> BY_SCORE_THEN_NAME =
+            Comparator.comparingInt(Item::score).reversed().thenComparing(Item::name);
+
+    @Test
+    void keepsBestElementsInOrder() {
+        TopK<Integer> top = new TopK<>(Comparator.<Integer>naturalOrder(), 0, 3);
+        for (int v : new int[]{9, 4, 7, 1, 8, 3, 2}) top.offer(v);
+
+        assertThat(top.page()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void pageSkipsEarlierPages() {
+        TopK<Integer> top = new TopK<>(Comparator.<Integer>naturalOrder(), 4, 3);
+        IntStream.of(10, 3, 8, 1, 6, 9, 2, 7, 5, 4).forEach(top::offer);
+
+        assertThat(top.page()).containsExactly(5, 6, 7);
+    }
+
+    @Test
+    void pageBeyondTheEndIsEmpty() {
+        TopK<Integer> top = new TopK<>(Comparator.<Integer>naturalOrder(), 10, 5);
+        IntStream.range(0, 4).forEach(top::offer);
+
+        assertThat(top.page()).isEmpty();
+    }
+
+    @Test
+    void lastPageMayBeShort() {
+        TopK<Integer> top = new TopK<>(Comparator.<Integer>naturalOrder(), 3, 5);
+        IntStream.range(0, 5).forEach(top::offer);
+
+        assertThat(top.page()).containsExactly(3, 4);
+    }
+
+    @Test
+    void tiesAreBrokenByTheComparator() {
+        TopK<Item> top = new TopK<>(BY_SCORE_THEN_NAME, 0, 3);
+        List.of(
+                new Item("dan", 5),
+                new Item("ana", 5),
+                new Item("eva", 2),
+                new Item("cor", 5),
+                new Item("bob", 5)
+        ).forEach(top::offer);
+
+        assertThat(top.page()).extracting(Item::name).containsExactly("ana", "bob", "cor");
+    }
+
+    @Test
+    void pagesOverTiesDoNotOverlap() {
+        List<Item> items = IntStream.range(0, 20)
+                .mapToObj(i -> new Item("u" + (char) ('a' + i), i % 2))
+                .toList();
+
+        TopK<Item> first = new TopK<>(BY_SCORE_THEN_NAME, 0, 5);
+        TopK<Item> second = new TopK<>(BY_SCORE_THEN_NAME, 5, 5);
+        items.forEach(first::offer);
+        items.forEach(second::offer);
+
+        List<Item> expected = items.stream().sorted(BY_SCORE_THEN_NAME).limit(10).toList();
+        assertThat(first.page()).containsExactlyElementsOf(expected.subList(0, 5));
+        assertThat(second.page()).containsExactlyElementsOf(expected.subList(5, 10));
+    }
+
+    @Test
+    void equalElementAtTheBoundaryDoesNotEvictTheKeptOne() {
+        TopK<Item> top = new TopK<>(Comparator.comparingInt(Item::score).reversed(), 0, 1);
+        top.offer(new Item("first", 7));
+        top.offer(new Item("second", 7));
+
+        assertThat(top.page()).extracting(Item::name).containsExactly("first");
+    }
+}
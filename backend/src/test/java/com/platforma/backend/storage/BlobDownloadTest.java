@@ -0,0 +1,172 @@
+package com.platforma.backend.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobDownloadTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String SHA = "a".repeat(64);
+    private static final String ETAG = "\"" + SHA + "\"";
+
+    @Test
+    void fullBodyWithValidators() throws Exception {
+        MockHttpServletResponse res = download(get(), memory());
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getHeader("ETag")).isEqualTo(ETAG);
+        assertThat(res.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(res.getContentLengthLong()).isEqualTo(10);
+        assertThat(res.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ifNoneMatchAnswers304() throws Exception {
+        for (String header : new String[]{ETAG, "W/" + ETAG, "\"other\", " + ETAG, "*"}) {
+            MockHttpServletRequest req = get();
+            req.addHeader("If-None-Match", header);
+
+            MockHttpServletResponse res = download(req, memory());
+
+            assertThat(res.getStatus()).as(header).isEqualTo(304);
+            assertThat(res.getContentAsByteArray()).as(header).isEmpty();
+        }
+    }
+
+    @Test
+    void ifNoneMatchWithOtherTagServesContent() throws Exception {
+        MockHttpServletRequest req = get();
+        req.addHeader("If-None-Match", "\"other\"");
+
+        assertThat(download(req, memory()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void singleRange() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=2-5"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes 2-5/10");
+        assertThat(res.getContentLengthLong()).isEqualTo(4);
+        assertThat(res.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void openEndedRange() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=7-"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes 7-9/10");
+        assertThat(res.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void suffixRange() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=-3"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes 7-9/10");
+        assertThat(res.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void suffixLongerThanContentServesEverything() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=-50"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes 0-9/10");
+        assertThat(res.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void rangePastTheEndIs416() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=10-20"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(416);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes */10");
+        assertThat(res.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void multipleRangesFallBackToTheFullBody() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=0-1,4-5"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getHeader("Content-Range")).isNull();
+        assertThat(res.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void malformedRangeIsIgnored() throws Exception {
+        MockHttpServletResponse res = download(range("bytes=abc"), memory());
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ifRangeHonoursTheRangeOnlyForTheSameContent() throws Exception {
+        MockHttpServletRequest same = range("bytes=0-1");
+        same.addHeader("If-Range", ETAG);
+        assertThat(download(same, memory()).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest changed = range("bytes=0-1");
+        changed.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse res = download(changed, memory());
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("HEAD", "/attachments/1");
+
+        MockHttpServletResponse res = download(req, memory());
+
+        assertThat(res.getStatus()).isEqualTo(200);
+        assertThat(res.getContentLengthLong()).isEqualTo(10);
+        assertThat(res.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void fileBackedRangeUsesTheSameBytes(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("blob"), CONTENT);
+
+        MockHttpServletResponse res = download(range("bytes=3-6"), new FileSystemResource(file));
+
+        assertThat(res.getStatus()).isEqualTo(206);
+        assertThat(res.getHeader("Content-Range")).isEqualTo("bytes 3-6/10");
+        assertThat(res.getContentAsString()).isEqualTo("3456");
+    }
+
+    private static MockHttpServletResponse download(MockHttpServletRequest req, Resource body) throws Exception {
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        BlobDownload.write(body, SHA, "application/pdf", "doc.pdf", req, res);
+        return res;
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/attachments/1");
+    }
+
+    private static MockHttpServletRequest range(String range) {
+        MockHttpServletRequest req = get();
+        req.addHeader("Range", range);
+        return req;
+    }
+
+    private static ByteArrayResource memory() {
+        return new ByteArrayResource(CONTENT);
+    }
+}
@@ -0,0 +1,77 @@
+package com.platforma.backend.ws;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RealtimeOutboxTest {
+
+    private SimpMessagingTemplate messaging;
+    private RealtimeOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        messaging = mock(SimpMessagingTemplate.class);
+        outbox = new RealtimeOutbox(messaging, 100, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventsPublishedInATransactionAreSentOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        outbox.publish("/topic/feed", "a");
+
+        verify(messaging, after(300).never()).convertAndSend(anyString(), any(Object.class));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(messaging, timeout(1000)).convertAndSend("/topic/feed", (Object) "a");
+        assertThat(TransactionSynchronizationManager.hasResource(outbox)).isFalse();
+    }
+
+    @Test
+    void eventsPublishedInARolledBackTransactionAreDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        outbox.publish("/topic/feed", "a");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(messaging, after(300).never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(TransactionSynchronizationManager.hasResource(outbox)).isFalse();
+    }
+
+    @Test
+    void eventsOutsideATransactionAreSentRightAway() {
+        outbox.publishToUser("alice", "/queue/inbox", "hi");
+
+        verify(messaging, timeout(1000)).convertAndSendToUser("alice", "/queue/inbox", "hi");
+    }
+
+    // ce face AbstractPlatformTransactionManager la sfarsitul tranzactiei
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
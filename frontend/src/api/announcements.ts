@@ -27,17 +27,32 @@ export type PostDto = {
   latestComments: CommentDto[];
 };
 
-export async function getAnnouncementsFeed(page = 0, size = 10): Promise<PostDto[]> {
-  const res = await api.get("/api/announcements/feed", { params: { page, size } });
+// delta pe /topic/announcements (announcement:like:updated)
+export type LikeUpdatedEvent = {
+  postId: number;
+  likeCount: number;
+};
+
+export type LikeStateDto = {
+  postId: number;
+  likeCount: number;
+  likedByMe: boolean;
+};
+
+// cursor = "createdAt,id" al ultimei postari primite (keyset, nu se decaleaza la postari noi)
+export async function getAnnouncementsFeed(cursor: string | null = null, size = 10): Promise<PostDto[]> {
+  const res = await api.get("/api/announcements/feed", { params: { cursor: cursor || undefined, size } });
   return res.data;
 }
 
+export const feedCursorOf = (p: PostDto) => `${p.createdAt},${p.id}`;
+
 export async function createAnnouncement(content: string, imageUrl?: string | null): Promise<PostDto> {
   const res = await api.post("/api/announcements", { content, imageUrl: imageUrl || null });
   return res.data;
 }
 
-export async function toggleAnnouncementLike(postId: number): Promise<PostDto> {
+export async function toggleAnnouncementLike(postId: number): Promise<LikeStateDto> {
   const res = await api.post(`/api/announcements/${postId}/like`);
   return res.data;
 }
@@ -40,3 +40,12 @@ export async function getConnections(): Promise<ConnectedProfileDto[]> {
   const res = await api.get<ConnectedProfileDto[]>("/api/connections");
   return res.data;
 }
+
+export type ConnectionSuggestionDto = ConnectedProfileDto & {
+  mutualCount: number;
+};
+
+export async function getConnectionSuggestions(limit = 20): Promise<ConnectionSuggestionDto[]> {
+  const res = await api.get<ConnectionSuggestionDto[]>("/api/connections/suggestions", { params: { limit } });
+  return res.data;
+}
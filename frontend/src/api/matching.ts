@@ -21,16 +21,31 @@ export type MatchingProfileDto = {
 
   avatarUrl?: string | null;
     connectionStatus?: "NONE" | "OUTGOING_PENDING" | "INCOMING_PENDING" | "CONNECTED";
+  mutualCount?: number;
 
 };
 
+export type MatchingFacets = {
+  availability: Record<string, number>;
+  experienceLevel: Record<string, number>;
+  role: Record<string, number>;
+  openToProjects: number;
+  openToMentoring: number;
+  expertAreas: Record<string, number>;
+};
+
+export type MatchingPageResponse = PageResponse<MatchingProfileDto> & {
+  facets?: MatchingFacets;
+};
+
 export type MatchingSort =
   | "NAME"
   | "EXPERTISE_AREA"
   | "AVAILABILITY"
   | "OPEN_TO_PROJECTS"
   | "OPEN_TO_MENTORING"
-  | "EXPERIENCE_LEVEL";
+  | "EXPERIENCE_LEVEL"
+  | "RELEVANCE";
 
 export const getMatchingProfiles = async (params: {
   page?: number;
@@ -41,10 +56,12 @@ export const getMatchingProfiles = async (params: {
   openToProjects?: boolean | null;
   openToMentoring?: boolean | null;
   experienceLevel?: string;
+  role?: string;
   sort?: MatchingSort;
   dir?: "ASC" | "DESC";
-}): Promise<PageResponse<MatchingProfileDto>> => {
-  const res = await api.get<PageResponse<MatchingProfileDto>>("/api/matching/profiles", {
+  mode?: "precomputed";
+}): Promise<MatchingPageResponse> => {
+  const res = await api.get<MatchingPageResponse>("/api/matching/profiles", {
     params: {
       page: params.page ?? 0,
       size: params.size ?? 20,
@@ -54,8 +71,10 @@ export const getMatchingProfiles = async (params: {
       openToProjects: params.openToProjects == null ? undefined : params.openToProjects,
       openToMentoring: params.openToMentoring == null ? undefined : params.openToMentoring,
       experienceLevel: params.experienceLevel || undefined,
+      role: params.role || undefined,
       sort: params.sort || "NAME",
-      dir: params.dir || "ASC"
+      dir: params.dir || "ASC",
+      mode: params.mode || undefined
     }
   });
 
@@ -22,6 +22,7 @@ export type ConversationListItem = {
   otherRole: string;
   otherAvatarUrl?: string | null;
   lastMessagePreview: string;
+  lastMessageAt?: string | null;
 };
 
 export const listConversations = async () => {
@@ -36,6 +37,18 @@ export const getLatestMessages = async (conversationId: number, limit: number) =
   return res.data as MessageDto[];
 };
 
+// cursor pe id-ul mesajului: before = scroll inapoi, after = ce am ratat la reconectare
+export const getMessagesPage = async (
+  conversationId: number,
+  limit: number,
+  cursor: { before?: number; after?: number }
+) => {
+  const res = await api.get(`/api/messages/conversations/${conversationId}/messages`, {
+    params: { limit, before: cursor.before, after: cursor.after }
+  });
+  return res.data as MessageDto[];
+};
+
 // ✅ NOU: trimite multipart (text + pdf optional)
 export const sendMessageMultipart = async (conversationId: number, content: string, file?: File | null) => {
   const fd = new FormData();
@@ -5,8 +5,10 @@ import {
   createAnnouncement,
   deleteAnnouncement,
   deleteAnnouncementComment,
+  feedCursorOf,
   getAnnouncementsFeed,
   toggleAnnouncementLike,
+  type LikeUpdatedEvent,
   type PostDto
 } from "../api/announcements";
 import { uploadAvatarToCloudinary } from "../api/cloudinary";
@@ -14,7 +16,7 @@ import { getProfileByUserId, openCv } from "../api/profile";
 import { AuthContext } from "../context/AuthContext";
 import { getOrCreateDirectConversation } from "../api/messages";
 import { useNavigate } from "react-router-dom";
-import { getWsClient } from "../realtime/wsClient";
+import { getWsClient, parseEvents } from "../realtime/wsClient";
 
 type CompanyDto = {
   name?: string;
@@ -95,7 +97,7 @@ export default function Announcements() {
   const isAdmin = (user?.role || "").toUpperCase() === "ADMIN";
 
   const [posts, setPosts] = useState<PostDto[]>([]);
-  const [page, setPage] = useState(0);
+  const cursorRef = useRef<string | null>(null);
 
   const [loading, setLoading] = useState(false);
   const [loadingMore, setLoadingMore] = useState(false);
@@ -190,7 +192,7 @@ export default function Announcements() {
   };
 
 
-  const loadPage = async (nextPage: number, mode: "replace" | "append") => {
+  const loadPage = async (mode: "replace" | "append") => {
     if (loadingRef.current) return;
     loadingRef.current = true;
 
@@ -198,7 +200,7 @@ export default function Announcements() {
     else setLoadingMore(true);
 
     try {
-      const data = await getAnnouncementsFeed(nextPage, 10);
+      const data = await getAnnouncementsFeed(mode === "replace" ? null : cursorRef.current, 10);
 
       // Prefetch avatars for authors + latest comments authors
       for (const p of data) {
@@ -221,7 +223,8 @@ export default function Announcements() {
         return merged;
       });
 
-      setPage(nextPage);
+      if (data.length > 0) cursorRef.current = feedCursorOf(data[data.length - 1]);
+      else if (mode === "replace") cursorRef.current = null;
     } catch (e) {
       console.error(e);
       pushToast("error", "Failed to load announcements.");
@@ -233,7 +236,7 @@ export default function Announcements() {
   };
 
   useEffect(() => {
-    loadPage(0, "replace");
+    loadPage("replace");
     return () => {
       if (imagePreview) URL.revokeObjectURL(imagePreview);
     };
@@ -251,9 +254,9 @@ useEffect(() => {
     if (sub) return;
 
     sub = c.subscribe("/topic/announcements", (msg) => {
-      const evt = JSON.parse(msg.body) as { type: string; data: any };
+      const events = parseEvents<{ type: string; data: any }>(msg);
 
-      setPosts((prev) => {
+      setPosts((prev) => events.reduce((prev, evt) => {
         switch (evt.type) {
           case "announcement:created":
             return [evt.data, ...prev];
@@ -261,8 +264,11 @@ useEffect(() => {
           case "announcement:deleted":
             return prev.filter((p) => p.id !== evt.data.postId);
 
-          case "announcement:like:updated":
-            return prev.map((p) => (p.id === evt.data.id ? evt.data : p));
+          case "announcement:like:updated": {
+            // un eveniment per postare per fereastra de flush; likedByMe vine din raspunsul la toggle
+            const { postId, likeCount } = evt.data as LikeUpdatedEvent;
+            return prev.map((p) => (p.id === postId ? { ...p, likeCount } : p));
+          }
 
           case "announcement:comment:created": {
             const { postId, comment } = evt.data;
@@ -291,7 +297,7 @@ useEffect(() => {
           default:
             return prev;
         }
-      });
+      }, prev));
     });
   };
 
@@ -324,7 +330,7 @@ useEffect(() => {
   }, [confirmDelete.open]);
 
   const refresh = async () => {
-    await loadPage(0, "replace");
+    await loadPage("replace");
   };
 
   const clearImage = () => {
@@ -401,8 +407,12 @@ useEffect(() => {
     );
 
     try {
-      const updated = await toggleAnnouncementLike(postId);
-      setPosts((prev) => prev.map((p) => (p.id === postId ? updated : p)));
+      const state = await toggleAnnouncementLike(postId);
+      setPosts((prev) =>
+        prev.map((p) =>
+          p.id === postId ? { ...p, likeCount: state.likeCount, likedByMe: state.likedByMe } : p
+        )
+      );
     } catch (e) {
       console.error(e);
       await refresh();
@@ -572,7 +582,7 @@ useEffect(() => {
           ))}
 
           <div className="annMore">
-            <button className="btn-outline" type="button" onClick={() => loadPage(page + 1, "append")} disabled={loadingMore}>
+            <button className="btn-outline" type="button" onClick={() => loadPage("append")} disabled={loadingMore}>
               {loadingMore ? "Loading..." : "Load more"}
             </button>
           </div>
@@ -13,7 +13,7 @@ import {
   type AttachmentDto
 } from "../api/messages";
 import { getProfileByUserId } from "../api/profile";
-import { getWsClient,onWsConnect  } from "../realtime/wsClient";
+import { getWsClient, onWsConnect, parseEvents } from "../realtime/wsClient";
 
 import { deleteConversationForMe } from "../api/messages";
 
@@ -197,11 +197,12 @@ useEffect(() => {
     sub = c.subscribe(`/topic/conversations.${activeId}`, (msg) => {
 
 
-      const incoming = JSON.parse(msg.body) as MessageDto;
+      const batch = parseEvents<MessageDto>(msg);
+      const incoming = batch[batch.length - 1];
 
       setMessages((prev) => {
-        if (prev.some((m) => m.id === incoming.id)) return prev;
-        return [...prev, incoming];
+        const fresh = batch.filter((m) => !prev.some((p) => p.id === m.id));
+        return fresh.length ? [...prev, ...fresh] : prev;
       });
 
       // update preview în listă
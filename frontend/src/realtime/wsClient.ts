@@ -65,3 +65,9 @@ export function safeSubscribe(destination: string, cb: (msg: IMessage) => void):
   if (!client || !client.connected) return null;
   return client.subscribe(destination, cb);
 }
+
+// backend-ul trimite mai multe evenimente pentru aceeasi destinatie intr-un singur frame (array)
+export function parseEvents<T>(msg: IMessage): T[] {
+  const body = JSON.parse(msg.body);
+  return Array.isArray(body) ? (body as T[]) : [body as T];
+}